@@ -0,0 +1,37 @@
+package io.github.israiloff.broker.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Spring application wiring the plugin against its own embedded in-VM broker (see {@code embedded.enabled} property).
+ */
+@SpringBootApplication(scanBasePackages = "io.github.israiloff.broker")
+public class BenchmarkApplication {
+
+    /**
+     * Address of the embedded broker's acceptor.
+     */
+    public static final String URL = "vm://0";
+
+    /**
+     * Starts application context together with the embedded broker.
+     *
+     * @param properties Additional properties in {@code key=value} form.
+     * @return Started context.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "io.github.israiloff.broker.url=" + URL,
+                        "io.github.israiloff.broker.embedded.enabled=true",
+                        "io.github.israiloff.broker.embedded.acceptor=" + URL,
+                        "io.github.israiloff.broker.exchangeType=TOPIC",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+}
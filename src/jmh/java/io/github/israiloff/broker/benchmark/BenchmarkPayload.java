@@ -0,0 +1,27 @@
+package io.github.israiloff.broker.benchmark;
+
+import java.io.Serializable;
+
+/**
+ * Typical message payload used by benchmarks.
+ *
+ * @param id        Identifier.
+ * @param sentNanos Send time in nanoseconds ({@link System#nanoTime()}).
+ * @param name      Short text.
+ * @param amount    Numeric value.
+ * @param data      Filler of configurable size.
+ */
+public record BenchmarkPayload(long id, long sentNanos, String name, double amount, String data)
+        implements Serializable {
+
+    /**
+     * Creates payload of specified size.
+     *
+     * @param id   Identifier.
+     * @param size Size of filler.
+     * @return Created payload.
+     */
+    public static BenchmarkPayload of(long id, int size) {
+        return new BenchmarkPayload(id, System.nanoTime(), "payload-" + id, id * 1.5, "x".repeat(size));
+    }
+}
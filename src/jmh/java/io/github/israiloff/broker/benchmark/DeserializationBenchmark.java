@@ -0,0 +1,102 @@
+package io.github.israiloff.broker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.israiloff.broker.codec.CborCodec;
+import io.github.israiloff.broker.codec.JsonCodec;
+import io.github.israiloff.broker.codec.SmileCodec;
+import io.github.israiloff.broker.config.SerializerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of deserialization of typical payloads by the plugin's codecs.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class DeserializationBenchmark {
+
+    @Param({"256", "16384"})
+    private int payloadSize;
+
+    private ObjectMapper objectMapper;
+    private JsonCodec jsonCodec;
+    private SmileCodec smileCodec;
+    private CborCodec cborCodec;
+    private String json;
+    private byte[] smile;
+    private byte[] cbor;
+
+    /**
+     * Prepares codecs and encoded payloads.
+     *
+     * @throws Exception If payload can't be encoded.
+     */
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = new SerializerConfig().objectMapper();
+        jsonCodec = new JsonCodec(objectMapper);
+        smileCodec = new SmileCodec(objectMapper);
+        cborCodec = new CborCodec(objectMapper);
+
+        var payload = BenchmarkPayload.of(1, payloadSize);
+        json = objectMapper.writeValueAsString(payload);
+        smile = smileCodec.encode(payload);
+        cbor = cborCodec.encode(payload);
+    }
+
+    /**
+     * Plain mapper deserialization of JSON text (no cached reader).
+     *
+     * @return Decoded payload.
+     * @throws Exception If payload can't be decoded.
+     */
+    @Benchmark
+    public BenchmarkPayload objectMapperJson() throws Exception {
+        return objectMapper.readValue(json, BenchmarkPayload.class);
+    }
+
+    /**
+     * JSON codec deserialization of text.
+     *
+     * @return Decoded payload.
+     */
+    @Benchmark
+    public BenchmarkPayload jsonCodec() {
+        return jsonCodec.decode(json, BenchmarkPayload.class);
+    }
+
+    /**
+     * Smile codec deserialization.
+     *
+     * @return Decoded payload.
+     */
+    @Benchmark
+    public BenchmarkPayload smileCodec() {
+        return smileCodec.decode(smile, BenchmarkPayload.class);
+    }
+
+    /**
+     * CBOR codec deserialization.
+     *
+     * @return Decoded payload.
+     */
+    @Benchmark
+    public BenchmarkPayload cborCodec() {
+        return cborCodec.decode(cbor, BenchmarkPayload.class);
+    }
+}
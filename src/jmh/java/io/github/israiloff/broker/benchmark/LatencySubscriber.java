@@ -0,0 +1,69 @@
+package io.github.israiloff.broker.benchmark;
+
+import io.github.israiloff.broker.model.Message;
+import io.github.israiloff.broker.service.Subscriber;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Subscriber recording end-to-end latency of received payloads.
+ */
+@Component
+public class LatencySubscriber implements Subscriber<BenchmarkPayload> {
+
+    /**
+     * Name of subscribed topic.
+     */
+    public static final String TOPIC = "benchmark.latency";
+
+    private final Recorder recorder = new Recorder(3);
+    private final AtomicLong received = new AtomicLong();
+
+    /**
+     * @return Expected class.
+     */
+    @Override
+    public Class<BenchmarkPayload> getMsgClass() {
+        return BenchmarkPayload.class;
+    }
+
+    /**
+     * @return Topic name.
+     */
+    @Override
+    public String getTopic() {
+        return TOPIC;
+    }
+
+    /**
+     * @param message Incoming message.
+     * @return End operation signal.
+     */
+    @Override
+    public Mono<Void> handle(Message<BenchmarkPayload> message) {
+        recorder.recordValue(System.nanoTime() - message.model().sentNanos());
+        received.incrementAndGet();
+        return Mono.empty();
+    }
+
+    /**
+     * Gets latency recorder.
+     *
+     * @return Recorder of latencies in nanoseconds.
+     */
+    public Recorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Gets count of received messages.
+     *
+     * @return Received messages count.
+     */
+    public long getReceived() {
+        return received.get();
+    }
+}
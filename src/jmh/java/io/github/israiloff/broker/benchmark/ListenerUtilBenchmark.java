@@ -0,0 +1,116 @@
+package io.github.israiloff.broker.benchmark;
+
+import io.github.israiloff.broker.config.JmsConfig;
+import io.github.israiloff.broker.util.ListenerUtil;
+import io.github.israiloff.broker.util.PublisherUtil;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of incoming message extraction and of outgoing message creation ({@link ListenerUtil},
+ * {@link PublisherUtil}).
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ListenerUtilBenchmark {
+
+    @Param({"256", "16384"})
+    private int payloadSize;
+
+    @Param({"0", "10"})
+    private int headersCount;
+
+    private ConfigurableApplicationContext context;
+    private Connection connection;
+    private ListenerUtil listenerUtil;
+    private PublisherUtil publisherUtil;
+    private jakarta.jms.Session session;
+    private HashMap<String, Object> headers;
+    private Message message;
+
+    /**
+     * Starts broker and application, prepares message.
+     *
+     * @throws Exception If setup fails.
+     */
+    @Setup
+    public void setup() throws Exception {
+        context = BenchmarkApplication.start();
+        listenerUtil = context.getBean(ListenerUtil.class);
+        publisherUtil = context.getBean(PublisherUtil.class);
+        connection = context.getBean(JmsConfig.CONNECTION_FACTORY, ConnectionFactory.class).createConnection();
+        session = connection.createSession();
+
+        headers = new HashMap<>();
+        for (var i = 0; i < headersCount; i++) {
+            headers.put("header" + i, "value" + i);
+        }
+        message = publisherUtil.createMessage(session, LatencySubscriber.TOPIC,
+                BenchmarkPayload.of(1, payloadSize), headers);
+        message.setJMSDestination(session.createTopic(LatencySubscriber.TOPIC));
+    }
+
+    /**
+     * Stops application and broker.
+     *
+     * @throws Exception If teardown fails.
+     */
+    @TearDown
+    public void tearDown() throws Exception {
+        connection.close();
+        context.close();
+    }
+
+    /**
+     * Extraction without touching headers.
+     *
+     * @param blackhole Result consumer.
+     */
+    @Benchmark
+    public void extract(Blackhole blackhole) {
+        blackhole.consume(listenerUtil.extract(message, LatencySubscriber.TOPIC));
+    }
+
+    /**
+     * Extraction followed by reading of all headers.
+     *
+     * @param blackhole Result consumer.
+     */
+    @Benchmark
+    public void extractWithHeaders(Blackhole blackhole) {
+        blackhole.consume(listenerUtil.extract(message, LatencySubscriber.TOPIC).headers().size());
+    }
+
+    /**
+     * Applying of headers to message.
+     *
+     * @return Message with applied headers.
+     * @throws Exception If headers can't be applied.
+     */
+    @Benchmark
+    public Message applyHeaders() throws Exception {
+        return publisherUtil.applyHeaders(headers).postProcessMessage(message);
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.israiloff.broker.benchmark;
+
+import io.github.israiloff.broker.model.Message;
+import io.github.israiloff.broker.service.Subscriber;
+import io.github.israiloff.broker.service.impl.SubscriberRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of topic matching of incoming messages ({@link SubscriberRegistry}). Cached routes, uncached hash
+ * (exact topics) and trie (wildcard topics) matching are measured separately, against linear matching of every
+ * subscriber's topic as a baseline. Uncached matching is measured on a registry whose route cache is already full.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("rawtypes")
+public class RoutingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int subscribersCount;
+
+    private List<Subscriber> subscribers;
+    private SubscriberRegistry registry;
+    private SubscriberRegistry uncachedRegistry;
+    private String exactTopic;
+    private String wildcardTopic;
+
+    /**
+     * Builds registries of exact and wildcard subscribers, fills route cache of the uncached one.
+     */
+    @Setup
+    public void setup() {
+        subscribers = new ArrayList<>();
+        for (var i = 0; i < subscribersCount; i++) {
+            subscribers.add(new NoopSubscriber("orders.topic" + i));
+            subscribers.add(new NoopSubscriber("news.region" + i + ".#"));
+        }
+        registry = new SubscriberRegistry(subscribers);
+        uncachedRegistry = new SubscriberRegistry(subscribers);
+        for (var i = 0; i < SubscriberRegistry.MAX_CACHED_ROUTES; i++) {
+            uncachedRegistry.route("unrouted.topic" + i);
+        }
+        exactTopic = "orders.topic" + (subscribersCount - 1);
+        wildcardTopic = "news.region" + (subscribersCount - 1) + ".sport.football";
+    }
+
+    /**
+     * Routing of exact topic name served by route cache.
+     *
+     * @return Matched subscribers.
+     */
+    @Benchmark
+    public List<Subscriber> routeExactCached() {
+        return registry.route(exactTopic);
+    }
+
+    /**
+     * Routing of topic name matched by wildcard served by route cache.
+     *
+     * @return Matched subscribers.
+     */
+    @Benchmark
+    public List<Subscriber> routeWildcardCached() {
+        return registry.route(wildcardTopic);
+    }
+
+    /**
+     * Routing of exact topic name by hash map lookup (and trie walk, finding nothing).
+     *
+     * @return Matched subscribers.
+     */
+    @Benchmark
+    public List<Subscriber> routeExactUncached() {
+        return uncachedRegistry.route(exactTopic);
+    }
+
+    /**
+     * Routing of topic name matched by wildcard by trie walk.
+     *
+     * @return Matched subscribers.
+     */
+    @Benchmark
+    public List<Subscriber> routeWildcardUncached() {
+        return uncachedRegistry.route(wildcardTopic);
+    }
+
+    /**
+     * Baseline matching of exact topic name against topic of every subscriber.
+     *
+     * @return Matched subscribers.
+     */
+    @Benchmark
+    public List<Subscriber> routeExactLinear() {
+        return routeLinear(exactTopic);
+    }
+
+    /**
+     * Baseline matching of topic name matched by wildcard against topic of every subscriber.
+     *
+     * @return Matched subscribers.
+     */
+    @Benchmark
+    public List<Subscriber> routeWildcardLinear() {
+        return routeLinear(wildcardTopic);
+    }
+
+    private List<Subscriber> routeLinear(String address) {
+        return subscribers.stream()
+                .filter(subscriber -> SubscriberRegistry.covers(subscriber.getTopic(), address))
+                .toList();
+    }
+
+    /**
+     * Subscriber doing nothing.
+     *
+     * @param topic Topic name.
+     */
+    private record NoopSubscriber(String topic) implements Subscriber<String> {
+
+        @Override
+        public String getTopic() {
+            return topic;
+        }
+
+        @Override
+        public Class<String> getMsgClass() {
+            return String.class;
+        }
+
+        @Override
+        public Mono<Void> handle(Message<String> message) {
+            return Mono.empty();
+        }
+    }
+}
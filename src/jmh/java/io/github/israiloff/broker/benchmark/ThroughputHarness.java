@@ -0,0 +1,104 @@
+package io.github.israiloff.broker.benchmark;
+
+import io.github.israiloff.broker.service.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end throughput harness. Starts embedded broker and the plugin, publishes messages via {@link Publisher} at
+ * configured rate and reports throughput and latency percentiles observed by {@link LatencySubscriber}.
+ * <p>
+ * Arguments (in {@code key=value} form): {@code count} - count of messages, {@code rate} - messages per second
+ * ({@code 0} means unthrottled), {@code payloadSize} - size of payload's filler, {@code concurrency} - maximum count of
+ * concurrent publishes, {@code timeout} - maximum time to wait for consumption (ISO-8601 duration).
+ */
+public final class ThroughputHarness {
+
+    private ThroughputHarness() {
+    }
+
+    /**
+     * Runs harness.
+     *
+     * @param args Arguments in {@code key=value} form.
+     * @throws Exception If harness fails.
+     */
+    public static void main(String[] args) throws Exception {
+        var options = parse(args);
+        var count = Long.parseLong(options.getOrDefault("count", "100000"));
+        var rate = Long.parseLong(options.getOrDefault("rate", "0"));
+        var payloadSize = Integer.parseInt(options.getOrDefault("payloadSize", "256"));
+        var concurrency = Integer.parseInt(options.getOrDefault("concurrency", "256"));
+        var timeout = Duration.parse(options.getOrDefault("timeout", "PT5M"));
+
+        try (var context = BenchmarkApplication.start()) {
+            var publisher = context.getBean(Publisher.class);
+            var subscriber = context.getBean(LatencySubscriber.class);
+            subscriber.getRecorder().getIntervalHistogram();
+
+            var intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+            var start = System.nanoTime();
+            Flux.range(0, (int) count)
+                    .doOnNext(index -> pace(start, index, intervalNanos))
+                    .flatMap(index -> publisher.publish(LatencySubscriber.TOPIC,
+                            BenchmarkPayload.of(index, payloadSize), null), concurrency)
+                    .blockLast();
+            var published = System.nanoTime();
+
+            var deadline = published + timeout.toNanos();
+            while (subscriber.getReceived() < count && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            var consumed = System.nanoTime();
+
+            report(count, subscriber, published - start, consumed - start);
+        }
+    }
+
+    private static void pace(long start, long index, long intervalNanos) {
+        if (intervalNanos == 0) {
+            return;
+        }
+
+        var due = start + index * intervalNanos;
+        var now = System.nanoTime();
+        while (now < due) {
+            LockSupport.parkNanos(due - now);
+            now = System.nanoTime();
+        }
+    }
+
+    private static void report(long count, LatencySubscriber subscriber, long publishNanos, long consumeNanos) {
+        var histogram = subscriber.getRecorder().getIntervalHistogram();
+        System.out.printf("published : %d messages in %d ms (%.0f msg/s)%n", count,
+                TimeUnit.NANOSECONDS.toMillis(publishNanos), count * 1e9 / publishNanos);
+        System.out.printf("consumed  : %d messages in %d ms (%.0f msg/s)%n", subscriber.getReceived(),
+                TimeUnit.NANOSECONDS.toMillis(consumeNanos), subscriber.getReceived() * 1e9 / consumeNanos);
+        System.out.printf("latency   : mean %.1f us, p50 %.1f us, p90 %.1f us, p99 %.1f us, p99.9 %.1f us, "
+                        + "max %.1f us%n",
+                histogram.getMean() / 1e3,
+                histogram.getValueAtPercentile(50) / 1e3,
+                histogram.getValueAtPercentile(90) / 1e3,
+                histogram.getValueAtPercentile(99) / 1e3,
+                histogram.getValueAtPercentile(99.9) / 1e3,
+                histogram.getMaxValue() / 1e3);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        var result = new HashMap<String, String>();
+        for (var arg : args) {
+            for (var option : arg.trim().split("\\s+")) {
+                var index = option.indexOf('=');
+                if (index > 0) {
+                    result.put(option.substring(0, index), option.substring(index + 1));
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.israiloff.broker.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base of the Jackson based payload codecs. Keeps cache of per type precompiled readers and writers.
+ */
+@Slf4j
+public abstract class AbstractJacksonCodec implements PayloadCodec {
+
+    /**
+     * Jackson mapper of codec's data format.
+     */
+    protected final ObjectMapper objectMapper;
+
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param objectMapper Jackson mapper of codec's data format.
+     */
+    protected AbstractJacksonCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param model Object to encode.
+     * @return Encoded payload.
+     */
+    @SneakyThrows
+    @Override
+    public byte[] encode(Object model) {
+        return getWriter(model.getClass()).writeValueAsBytes(model);
+    }
+
+    /**
+     * @param payload     Encoded payload.
+     * @param type        Class of expected object.
+     * @param <TResponse> Type of expected object.
+     * @return Decoded object.
+     */
+    @SneakyThrows
+    @Override
+    public <TResponse> TResponse decode(byte[] payload, Class<TResponse> type) {
+        return getReader(type).readValue(payload);
+    }
+
+    /**
+     * @param type Target type.
+     */
+    @Override
+    public void prepare(Class<?> type) {
+        getReader(type);
+        getWriter(type);
+    }
+
+    /**
+     * Decodes empty object of specified type and encodes the result back. Types which can't be decoded from empty
+     * object are skipped.
+     *
+     * @param type Target type.
+     */
+    @Override
+    public void warmUp(Class<?> type) {
+        try {
+            var model = decode(objectMapper.writeValueAsBytes(objectMapper.createObjectNode()), type);
+            encode(model);
+        } catch (Exception e) {
+            log.debug("warm up of {} codec skipped for type : {}", getName(), type.getName());
+        }
+    }
+
+    /**
+     * Gets cached reader of specified type.
+     *
+     * @param type Target type.
+     * @return Precompiled reader.
+     */
+    protected ObjectReader getReader(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    /**
+     * Gets cached writer of specified type.
+     *
+     * @param type Target type.
+     * @return Precompiled writer.
+     */
+    protected ObjectWriter getWriter(Class<?> type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+}
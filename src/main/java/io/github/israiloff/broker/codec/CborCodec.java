@@ -0,0 +1,52 @@
+package io.github.israiloff.broker.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.github.israiloff.broker.config.SerializerConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * CBOR payload codec. Payloads are carried in {@code BytesMessage}.
+ */
+@Component
+public class CborCodec extends AbstractJacksonCodec {
+
+    /**
+     * Name of codec.
+     */
+    public static final String NAME = "cbor";
+
+    /**
+     * Constructor.
+     *
+     * @param objectMapper Jackson mapper. Its configuration and modules are copied for CBOR format.
+     */
+    public CborCodec(@Qualifier(SerializerConfig.SERIALIZER_NAME) ObjectMapper objectMapper) {
+        super(objectMapper.copyWith(new CBORFactory()));
+    }
+
+    /**
+     * @return Codec name.
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @return Content type.
+     */
+    @Override
+    public String getContentType() {
+        return "application/cbor";
+    }
+
+    /**
+     * @return True if payloads are binary.
+     */
+    @Override
+    public boolean isBinary() {
+        return true;
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.israiloff.broker.codec;
+
+import io.github.israiloff.broker.config.JmsProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of available payload codecs.
+ */
+@Slf4j
+@Component
+public class CodecRegistry {
+
+    private final Map<String, PayloadCodec> codecsByName = new HashMap<>();
+    private final Map<String, PayloadCodec> codecsByContentType = new HashMap<>();
+    private final Map<String, PayloadCodec> codecsByTopic = new HashMap<>();
+    private final PayloadCodec defaultCodec;
+    private final boolean warmUp;
+
+    /**
+     * Constructor.
+     *
+     * @param codecs     All registered codecs.
+     * @param properties JMS properties.
+     */
+    public CodecRegistry(List<PayloadCodec> codecs, JmsProperties properties) {
+        codecs.forEach(codec -> {
+            codecsByName.put(codec.getName(), codec);
+            codecsByContentType.put(codec.getContentType(), codec);
+        });
+        this.defaultCodec = getByName(properties.codec().defaultCodec());
+        this.warmUp = properties.codec().warmUp();
+        properties.codec().topics().forEach((topic, name) -> codecsByTopic.put(topic, getByName(name)));
+        log.debug("codec registry built for codecs : {}", codecsByName.keySet());
+    }
+
+    /**
+     * Gets codec used for publishing to specified topic.
+     *
+     * @param topic Name of target topic.
+     * @return Configured codec of topic or the default one.
+     */
+    public PayloadCodec forTopic(String topic) {
+        return codecsByTopic.getOrDefault(topic, defaultCodec);
+    }
+
+    /**
+     * Gets codec of specified content type.
+     *
+     * @param contentType Content type of payload. Can be null.
+     * @return Codec of content type or JSON codec if content type is unknown.
+     */
+    public PayloadCodec forContentType(String contentType) {
+        var codec = contentType == null ? null : codecsByContentType.get(contentType);
+        return codec == null ? codecsByName.get(JsonCodec.NAME) : codec;
+    }
+
+    /**
+     * Prepares all codecs for specified type and optionally warms them up.
+     *
+     * @param type Target type.
+     */
+    public void prepare(Class<?> type) {
+        log.debug("prepare started for type : {}", type.getName());
+        codecsByName.values().forEach(codec -> {
+            codec.prepare(type);
+            if (warmUp) {
+                codec.warmUp(type);
+            }
+        });
+    }
+
+    private PayloadCodec getByName(String name) {
+        var codec = codecsByName.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("unknown payload codec : " + name);
+        }
+        return codec;
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.israiloff.broker.codec;
+
+import io.github.israiloff.broker.config.CompressionProperties;
+import io.github.israiloff.broker.config.JmsProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of available payload compressors.
+ */
+@Slf4j
+@Component
+public class CompressorRegistry {
+
+    private final Map<String, PayloadCompressor> compressorsByName = new HashMap<>();
+    private final Map<String, Compression> compressionsByTopic = new HashMap<>();
+    private final Compression defaultCompression;
+    private final int maxDecompressedSize;
+
+    /**
+     * Constructor.
+     *
+     * @param compressors All registered compressors.
+     * @param properties  JMS properties.
+     */
+    public CompressorRegistry(List<PayloadCompressor> compressors, JmsProperties properties) {
+        compressors.forEach(compressor -> compressorsByName.put(compressor.getName(), compressor));
+        var compression = properties.compression();
+        this.defaultCompression = createDefault(compression);
+        this.maxDecompressedSize = Math.toIntExact(compression.maxDecompressedSize().toBytes());
+        compression.topics().forEach((topic, topicCompression) -> {
+            if (!topicCompression.enabled()) {
+                compressionsByTopic.put(topic, Compression.DISABLED);
+                return;
+            }
+
+            var algorithm = topicCompression.algorithm() == null
+                    ? compression.algorithm()
+                    : topicCompression.algorithm();
+            var threshold = topicCompression.threshold() == null
+                    ? compression.threshold()
+                    : topicCompression.threshold();
+            compressionsByTopic.put(topic, threshold == null
+                    ? Compression.DISABLED
+                    : new Compression(getByName(algorithm), threshold.toBytes()));
+        });
+        log.debug("compressor registry built for compressors : {}", compressorsByName.keySet());
+    }
+
+    /**
+     * Checks whether payloads of specified topic may be compressed.
+     *
+     * @param topic Name of target topic.
+     * @return True if compression is enabled for topic.
+     */
+    public boolean isEnabled(String topic) {
+        return getCompression(topic).compressor() != null;
+    }
+
+    /**
+     * Gets compressor of payload of specified topic and size.
+     *
+     * @param topic Name of target topic.
+     * @param size  Size of payload.
+     * @return Compressor if payload must be compressed, null otherwise.
+     */
+    public PayloadCompressor forPayload(String topic, int size) {
+        var compression = getCompression(topic);
+        return compression.compressor() != null && size >= compression.threshold() ? compression.compressor() : null;
+    }
+
+    /**
+     * Decompresses payload of consumed message, limiting size of the original payload by
+     * {@code compression.maxDecompressedSize} property.
+     *
+     * @param name    Name of compressor.
+     * @param payload Compressed payload.
+     * @return Original payload.
+     */
+    public byte[] decompress(String name, byte[] payload) {
+        return getByName(name).decompress(payload, maxDecompressedSize);
+    }
+
+    /**
+     * Gets compressor by its name.
+     *
+     * @param name Name of compressor.
+     * @return Compressor.
+     */
+    public PayloadCompressor getByName(String name) {
+        var compressor = compressorsByName.get(name);
+        if (compressor == null) {
+            throw new IllegalArgumentException("unknown payload compressor : " + name);
+        }
+        return compressor;
+    }
+
+    private Compression getCompression(String topic) {
+        return compressionsByTopic.getOrDefault(topic, defaultCompression);
+    }
+
+    private Compression createDefault(CompressionProperties compression) {
+        return compression.threshold() == null
+                ? Compression.DISABLED
+                : new Compression(getByName(compression.algorithm()), compression.threshold().toBytes());
+    }
+
+    /**
+     * Resolved compression settings.
+     *
+     * @param compressor Compressor. Null if compression is disabled.
+     * @param threshold  Minimum size of payload to compress.
+     */
+    private record Compression(PayloadCompressor compressor, long threshold) {
+
+        private static final Compression DISABLED = new Compression(null, Long.MAX_VALUE);
+    }
+}
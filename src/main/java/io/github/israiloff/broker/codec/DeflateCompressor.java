@@ -0,0 +1,60 @@
+package io.github.israiloff.broker.codec;
+
+import lombok.SneakyThrows;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Deflate payload compressor. Uses the fastest compression level.
+ */
+@Component
+public class DeflateCompressor implements PayloadCompressor {
+
+    /**
+     * Name of compressor.
+     */
+    public static final String NAME = "deflate";
+
+    /**
+     * @return Compressor name.
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @param payload Payload to compress.
+     * @return Compressed payload.
+     */
+    @SneakyThrows
+    @Override
+    public byte[] compress(byte[] payload) {
+        var result = new ByteArrayOutputStream(payload.length / 2);
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try (var stream = new DeflaterOutputStream(result, deflater)) {
+            stream.write(payload);
+        } finally {
+            deflater.end();
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * @param payload Compressed payload.
+     * @param maxSize Maximum size of original payload in bytes.
+     * @return Original payload.
+     */
+    @SneakyThrows
+    @Override
+    public byte[] decompress(byte[] payload, int maxSize) {
+        try (var stream = new InflaterInputStream(new ByteArrayInputStream(payload))) {
+            return PayloadCompressor.readAllBytes(stream, maxSize);
+        }
+    }
+}
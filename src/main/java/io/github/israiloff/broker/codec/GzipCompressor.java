@@ -0,0 +1,56 @@
+package io.github.israiloff.broker.codec;
+
+import lombok.SneakyThrows;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GZIP payload compressor.
+ */
+@Component
+public class GzipCompressor implements PayloadCompressor {
+
+    /**
+     * Name of compressor.
+     */
+    public static final String NAME = "gzip";
+
+    /**
+     * @return Compressor name.
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @param payload Payload to compress.
+     * @return Compressed payload.
+     */
+    @SneakyThrows
+    @Override
+    public byte[] compress(byte[] payload) {
+        var result = new ByteArrayOutputStream(payload.length / 2);
+        try (var stream = new GZIPOutputStream(result)) {
+            stream.write(payload);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * @param payload Compressed payload.
+     * @param maxSize Maximum size of original payload in bytes.
+     * @return Original payload.
+     */
+    @SneakyThrows
+    @Override
+    public byte[] decompress(byte[] payload, int maxSize) {
+        try (var stream = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return PayloadCompressor.readAllBytes(stream, maxSize);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.israiloff.broker.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.israiloff.broker.config.SerializerConfig;
+import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * JSON payload codec. Payloads are carried in {@code TextMessage}.
+ */
+@Component
+public class JsonCodec extends AbstractJacksonCodec {
+
+    /**
+     * Name of codec.
+     */
+    public static final String NAME = "json";
+
+    /**
+     * Constructor.
+     *
+     * @param objectMapper Jackson mapper.
+     */
+    public JsonCodec(@Qualifier(SerializerConfig.SERIALIZER_NAME) ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    /**
+     * @return Codec name.
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @return Content type.
+     */
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+
+    /**
+     * @return True if payloads are binary.
+     */
+    @Override
+    public boolean isBinary() {
+        return false;
+    }
+
+    /**
+     * Encodes payload directly to text, without conversion from bytes.
+     *
+     * @param model Object to encode.
+     * @return Encoded text payload.
+     */
+    @SneakyThrows
+    @Override
+    public String encodeText(Object model) {
+        return getWriter(model.getClass()).writeValueAsString(model);
+    }
+
+    /**
+     * Decodes payload directly from text, without conversion to bytes.
+     *
+     * @param payload     Encoded text payload.
+     * @param type        Class of expected object.
+     * @param <TResponse> Type of expected object.
+     * @return Decoded object.
+     */
+    @SneakyThrows
+    @Override
+    public <TResponse> TResponse decode(String payload, Class<TResponse> type) {
+        return getReader(type).readValue(payload);
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.israiloff.broker.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codec of messages' payloads (bodies). Implementations are registered as beans and selected per topic on publishing,
+ * and by content type header on consumption.
+ */
+public interface PayloadCodec {
+
+    /**
+     * Gets name of codec used in configuration (ex. {@code json}).
+     *
+     * @return Codec name.
+     */
+    String getName();
+
+    /**
+     * Gets content type of encoded payloads. Passed to consumers via {@code contentType} header.
+     *
+     * @return Content type.
+     */
+    String getContentType();
+
+    /**
+     * Checks whether encoded payloads are binary (i.e. must be carried in {@code BytesMessage}).
+     *
+     * @return True if payloads are binary, false if payloads are text.
+     */
+    boolean isBinary();
+
+    /**
+     * Encodes specified object.
+     *
+     * @param model Object to encode.
+     * @return Encoded payload.
+     */
+    byte[] encode(Object model);
+
+    /**
+     * Encodes specified object to text. Used for payloads carried in {@code TextMessage}.
+     *
+     * @param model Object to encode.
+     * @return Encoded text payload.
+     */
+    default String encodeText(Object model) {
+        return new String(encode(model), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes specified payload.
+     *
+     * @param payload     Encoded payload.
+     * @param type        Class of expected object.
+     * @param <TResponse> Type of expected object.
+     * @return Decoded object.
+     */
+    <TResponse> TResponse decode(byte[] payload, Class<TResponse> type);
+
+    /**
+     * Decodes specified text payload.
+     *
+     * @param payload     Encoded text payload.
+     * @param type        Class of expected object.
+     * @param <TResponse> Type of expected object.
+     * @return Decoded object.
+     */
+    default <TResponse> TResponse decode(String payload, Class<TResponse> type) {
+        return decode(payload.getBytes(StandardCharsets.UTF_8), type);
+    }
+
+    /**
+     * Prepares (precompiles) everything required for encoding/decoding of specified type, so that the first message
+     * of the type doesn't pay the cold start cost.
+     *
+     * @param type Target type.
+     */
+    default void prepare(Class<?> type) {
+    }
+
+    /**
+     * Exercises encoding and decoding of specified type.
+     *
+     * @param type Target type.
+     */
+    default void warmUp(Class<?> type) {
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.israiloff.broker.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Compressor of messages' payloads. Implementations are registered as beans and referenced by name in compression
+ * properties. Name of compressor is passed to consumers via {@code contentEncoding} header.
+ */
+public interface PayloadCompressor {
+
+    /**
+     * Gets name of compressor used in configuration and headers (ex. {@code gzip}).
+     *
+     * @return Compressor name.
+     */
+    String getName();
+
+    /**
+     * Compresses specified payload.
+     *
+     * @param payload Payload to compress.
+     * @return Compressed payload.
+     */
+    byte[] compress(byte[] payload);
+
+    /**
+     * Decompresses specified payload. Decompression fails once the original payload exceeds specified size, so that
+     * small malicious payload can't exhaust memory.
+     *
+     * @param payload Compressed payload.
+     * @param maxSize Maximum size of original payload in bytes.
+     * @return Original payload.
+     */
+    byte[] decompress(byte[] payload, int maxSize);
+
+    /**
+     * Reads decompressing stream to the end, failing once more than specified count of bytes is read.
+     *
+     * @param stream  Decompressing stream.
+     * @param maxSize Maximum count of bytes to read.
+     * @return Read bytes.
+     * @throws IOException If stream can't be read or exceeds maximum size.
+     */
+    static byte[] readAllBytes(InputStream stream, int maxSize) throws IOException {
+        var result = new ByteArrayOutputStream();
+        var buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            if (result.size() + read > maxSize) {
+                throw new IOException("decompressed payload exceeds maximum size of " + maxSize + " bytes");
+            }
+            result.write(buffer, 0, read);
+        }
+        return result.toByteArray();
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.israiloff.broker.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.github.israiloff.broker.config.SerializerConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jackson Smile (binary JSON) payload codec. Payloads are carried in {@code BytesMessage}.
+ */
+@Component
+public class SmileCodec extends AbstractJacksonCodec {
+
+    /**
+     * Name of codec.
+     */
+    public static final String NAME = "smile";
+
+    /**
+     * Constructor.
+     *
+     * @param objectMapper Jackson mapper. Its configuration and modules are copied for Smile format.
+     */
+    public SmileCodec(@Qualifier(SerializerConfig.SERIALIZER_NAME) ObjectMapper objectMapper) {
+        super(objectMapper.copyWith(new SmileFactory()));
+    }
+
+    /**
+     * @return Codec name.
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @return Content type.
+     */
+    @Override
+    public String getContentType() {
+        return "application/x-jackson-smile";
+    }
+
+    /**
+     * @return True if payloads are binary.
+     */
+    @Override
+    public boolean isBinary() {
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Adaptive consumer window related external properties.
+ *
+ * @param enabled       Whether consumer window of each listener container is resized from observed latency and
+ *                      in-flight depth of its subscribers' handlers.
+ * @param minWindowSize Minimum size of consumer window. Windows are resized between fixed sizes: the minimum one
+ *                      doubled up to the maximum one.
+ * @param maxWindowSize Maximum size of consumer window.
+ * @param targetLatency Average handling latency above which the window is shrunk.
+ * @param maxInFlight   Count of messages being handled above which the window is shrunk.
+ * @param interval      Interval of evaluation of observed latency and in-flight depth.
+ * @param cooldown      Minimum time between resizes of the same container's window. Containers are replaced to apply
+ *                      new window size.
+ */
+public record AdaptiveWindowProperties(@DefaultValue("false") boolean enabled,
+                                       @DefaultValue("64KB") DataSize minWindowSize,
+                                       @DefaultValue("4MB") DataSize maxWindowSize,
+                                       @DefaultValue("100ms") Duration targetLatency,
+                                       @DefaultValue("100") int maxInFlight,
+                                       @DefaultValue("10s") Duration interval,
+                                       @DefaultValue("60s") Duration cooldown) {
+}
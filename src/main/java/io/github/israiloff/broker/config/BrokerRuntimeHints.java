@@ -0,0 +1,75 @@
+package io.github.israiloff.broker.config;
+
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.activemq.artemis.jms.client.ActiveMQQueueConnectionFactory;
+import org.apache.activemq.artemis.jms.client.ActiveMQTopicConnectionFactory;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Native image reachability metadata of the library, the only source of it (no hand-written JSON configuration is
+ * shipped). Covers Artemis client classes loaded by name (connector factories, load balancing policy, logger bundles
+ * and version resource), Jackson modules registered by {@link SerializerConfig} together with legacy date types they
+ * bind, and virtual threads' builder used reflectively by publishing and bulkhead schedulers. Payload types of
+ * subscribers are registered by {@link SubscriberAotProcessor}, while types known only at call sites of
+ * {@code Publisher}, i.e. published payloads and reply types of requests, should be registered by application, e.g.
+ * via {@link RegisterReflectionForBinding}.
+ */
+public class BrokerRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> ARTEMIS_TYPES = List.of(
+            "org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnectorFactory",
+            "org.apache.activemq.artemis.core.remoting.impl.invm.InVMConnectorFactory",
+            "org.apache.activemq.artemis.core.remoting.impl.invm.InVMAcceptorFactory",
+            "org.apache.activemq.artemis.api.core.client.loadbalance.RoundRobinConnectionLoadBalancingPolicy",
+            "org.apache.activemq.artemis.core.client.ActiveMQClientLogger",
+            "org.apache.activemq.artemis.core.client.ActiveMQClientLogger_$logger",
+            "org.apache.activemq.artemis.core.client.ActiveMQClientMessageBundle_$bundle",
+            "org.apache.activemq.artemis.logs.ActiveMQUtilLogger_$logger",
+            "org.apache.activemq.artemis.utils.VersionLoader",
+            "org.jboss.logmanager.LogManager");
+
+    private static final List<String> DATE_TYPES = List.of(
+            "java.util.Date", "java.util.Calendar", "java.sql.Date", "java.sql.Time", "java.sql.Timestamp");
+
+    private static final String THREAD_BUILDER = "java.lang.Thread$Builder";
+
+    /**
+     * Registers hints.
+     *
+     * @param hints       Runtime hints to contribute to.
+     * @param classLoader Class loader of the application.
+     */
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("activemq-version.properties");
+
+        ARTEMIS_TYPES.forEach(type -> hints.reflection().registerTypeIfPresent(classLoader, type,
+                MemberCategory.values()));
+        Stream.of(ActiveMQTopicConnectionFactory.class, ActiveMQQueueConnectionFactory.class)
+                .forEach(type -> hints.reflection().registerType(type,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        Stream.of(JavaTimeModule.class, Jdk8Module.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+        DATE_TYPES.forEach(type -> {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.values());
+            hints.reflection().registerType(TypeReference.of(type + "[]"), MemberCategory.values());
+        });
+
+        hints.reflection().registerType(Thread.class, builder -> builder
+                .withMethod("ofVirtual", List.of(), ExecutableMode.INVOKE));
+        hints.reflection().registerType(TypeReference.of(THREAD_BUILDER), builder -> builder
+                .withMethod("name", List.of(TypeReference.of(String.class), TypeReference.of(long.class)),
+                        ExecutableMode.INVOKE)
+                .withMethod("factory", List.of(), ExecutableMode.INVOKE));
+    }
+}
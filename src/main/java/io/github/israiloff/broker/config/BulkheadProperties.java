@@ -0,0 +1,20 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Per subscriber bulkheads related external properties.
+ *
+ * @param enabled        Whether each subscriber's handler is executed on its own bounded scheduler, so that slow or
+ *                       blocking subscriber can't starve other ones.
+ * @param threads        Count of threads of each subscriber's scheduler.
+ * @param queueCapacity  Maximum count of handlings waiting for a free thread of subscriber's scheduler.
+ * @param virtualThreads Whether threads should be virtual (takes effect on Java 21+ only).
+ * @param rejection      Policy of handling messages once subscriber's scheduler is saturated.
+ */
+public record BulkheadProperties(@DefaultValue("false") boolean enabled,
+                                 @DefaultValue("4") int threads,
+                                 @DefaultValue("1000") int queueCapacity,
+                                 @DefaultValue("false") boolean virtualThreads,
+                                 @DefaultValue("CALLER_RUNS") RejectionPolicy rejection) {
+}
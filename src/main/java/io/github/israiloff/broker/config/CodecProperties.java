@@ -0,0 +1,17 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Payload codecs related external properties.
+ *
+ * @param defaultCodec Name of codec used for publishing by default ({@code json}, {@code smile} or {@code cbor}).
+ * @param topics       Names of codecs used for publishing to specific topics (topic name to codec name).
+ * @param warmUp       Whether codecs should be warmed up for subscribers' types before listener containers start.
+ */
+public record CodecProperties(@DefaultValue("json") String defaultCodec,
+                              @DefaultValue Map<String, String> topics,
+                              @DefaultValue("false") boolean warmUp) {
+}
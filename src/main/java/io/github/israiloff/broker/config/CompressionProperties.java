@@ -0,0 +1,22 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+
+/**
+ * Payload compression related external properties.
+ *
+ * @param algorithm           Name of compressor used by default ({@code gzip}, {@code deflate} or name of custom
+ *                            compressor).
+ * @param threshold           Minimum size of payload to compress by default. Null means that payloads are not
+ *                            compressed.
+ * @param topics              Compression properties of specific topics (topic name to properties).
+ * @param maxDecompressedSize Maximum size of decompressed payload of consumed message. Larger payloads are rejected.
+ */
+public record CompressionProperties(@DefaultValue("gzip") String algorithm,
+                                    DataSize threshold,
+                                    @DefaultValue Map<String, TopicCompressionProperties> topics,
+                                    @DefaultValue("64MB") DataSize maxDecompressedSize) {
+}
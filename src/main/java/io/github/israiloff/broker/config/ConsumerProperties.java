@@ -0,0 +1,46 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Message consumption related external properties.
+ *
+ * @param mode             Mode of messages' consumption.
+ * @param maxInFlight      Default maximum count of concurrently processing messages per subscriber. Takes effect in
+ *                         {@link ConsumptionMode#ON_COMPLETION} mode for queues and shared subscriptions only.
+ * @param shared           Whether topics are consumed via JMS 2.0 shared subscriptions, so that messages are spread
+ *                         across all instances of the application and their consumer threads.
+ * @param durable          Whether shared subscriptions are durable, i.e. messages sent while no instance is running are
+ *                         retained.
+ * @param connections      Count of connections shared by all listener containers.
+ * @param concurrency      Default count of consumers (sessions) per subscriber. Takes effect for queues and shared
+ *                         subscriptions only.
+ * @param batchSize        Default maximum count of messages of single batch of batch subscribers.
+ * @param batchTimeout     Default maximum time to collect messages of single batch of batch subscribers.
+ * @param receiveTimeout   Maximum time of waiting for the first message of a batch by consumers of batch subscribers,
+ *                         i.e. how often they check whether they are stopped.
+ * @param recoveryInterval Delay before recovering consumers of batch subscribers after failure of the connection.
+ * @param bulkhead         Per subscriber bulkheads properties.
+ * @param lanes            Ordered handling lanes properties.
+ * @param windowSize       Default size of consumer window, i.e. of messages buffered by each consumer in advance.
+ *                         {@code -1} means unbounded window, {@code 0} disables buffering.
+ * @param adaptiveWindow   Adaptive consumer window properties.
+ */
+public record ConsumerProperties(@DefaultValue("ASYNC") ConsumptionMode mode,
+                                 @DefaultValue("1") int maxInFlight,
+                                 @DefaultValue("false") boolean shared,
+                                 @DefaultValue("false") boolean durable,
+                                 @DefaultValue("1") int connections,
+                                 @DefaultValue("1") int concurrency,
+                                 @DefaultValue("100") int batchSize,
+                                 @DefaultValue("100ms") Duration batchTimeout,
+                                 @DefaultValue("1s") Duration receiveTimeout,
+                                 @DefaultValue("5s") Duration recoveryInterval,
+                                 @DefaultValue BulkheadProperties bulkhead,
+                                 @DefaultValue LaneProperties lanes,
+                                 @DefaultValue("1MB") DataSize windowSize,
+                                 @DefaultValue AdaptiveWindowProperties adaptiveWindow) {
+}
@@ -0,0 +1,17 @@
+package io.github.israiloff.broker.config;
+
+/**
+ * Mode of incoming messages' consumption.
+ */
+public enum ConsumptionMode {
+    /**
+     * Message is acknowledged (committed) as soon as its processing is started. Processing itself is performed
+     * asynchronously, so failed messages are not redelivered.
+     */
+    ASYNC,
+    /**
+     * Message is acknowledged (committed) only after {@code Subscriber.handle} completes successfully. Failed messages
+     * are rolled back and redelivered by the broker.
+     */
+    ON_COMPLETION
+}
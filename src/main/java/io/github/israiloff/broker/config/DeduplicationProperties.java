@@ -0,0 +1,18 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Deduplication related external properties.
+ *
+ * @param publish   Whether published messages are stamped with random duplicate detection identifier generated once
+ *                  per publish (unless identifier is supplied by the caller), so that the broker drops retried sends.
+ * @param consume   Whether already processed messages are skipped by consumers of the same subscription.
+ * @param cacheSize Approximate count of the last processed messages' identifiers remembered by consumers.
+ * @param stripes   Count of independently locked stripes of the processed identifiers' cache.
+ */
+public record DeduplicationProperties(@DefaultValue("false") boolean publish,
+                                      @DefaultValue("false") boolean consume,
+                                      @DefaultValue("100000") int cacheSize,
+                                      @DefaultValue("16") int stripes) {
+}
@@ -0,0 +1,76 @@
+package io.github.israiloff.broker.config;
+
+import jakarta.jms.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.AbstractDependsOnBeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Embedded in-VM broker configuration. Broker is started before any connection factory is created, so that
+ * {@code vm://} connections are accepted in-process without TCP round trip.
+ */
+@SuppressWarnings("SpringFacetCodeInspection")
+@Slf4j
+@Configuration
+@ConditionalOnClass(name = "org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ")
+@ConditionalOnProperty(prefix = "io.github.israiloff.broker.embedded", name = "enabled", havingValue = "true")
+public class EmbeddedBrokerConfig {
+
+    /**
+     * Name of the embedded artemis broker bean.
+     */
+    public static final String EMBEDDED_BROKER = "cmArtemisEmbeddedBroker";
+
+    /**
+     * Makes all connection factories depend on embedded broker.
+     *
+     * @return Bean factory post processor.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor connectionFactoryDependsOnEmbeddedBroker() {
+        return new ConnectionFactoryDependsOnEmbeddedBroker();
+    }
+
+    /**
+     * Embedded broker defined bean.
+     *
+     * @param properties JMS external properties.
+     * @return Started embedded broker.
+     * @throws Exception If broker can't be started.
+     */
+    @Bean(name = EMBEDDED_BROKER, destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedBroker(JmsProperties properties) throws Exception {
+        var embedded = properties.embedded();
+        log.debug("embeddedBroker started with acceptor : {}", embedded.acceptor());
+        var configuration = new ConfigurationImpl()
+                .setPersistenceEnabled(embedded.persistent())
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("in-vm", embedded.acceptor());
+        if (embedded.persistent()) {
+            var directory = Path.of(embedded.dataDirectory());
+            configuration.setJournalDirectory(directory.resolve("journal").toString())
+                    .setBindingsDirectory(directory.resolve("bindings").toString())
+                    .setPagingDirectory(directory.resolve("paging").toString())
+                    .setLargeMessagesDirectory(directory.resolve("large-messages").toString());
+        }
+        return new EmbeddedActiveMQ().setConfiguration(configuration).start();
+    }
+
+    /**
+     * Post processor declaring dependency of connection factories on embedded broker.
+     */
+    static class ConnectionFactoryDependsOnEmbeddedBroker extends AbstractDependsOnBeanFactoryPostProcessor {
+
+        ConnectionFactoryDependsOnEmbeddedBroker() {
+            super(ConnectionFactory.class, EMBEDDED_BROKER);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Embedded in-VM broker related external properties. Requires {@code artemis-jakarta-server} on the classpath.
+ *
+ * @param enabled       Whether embedded broker is started within the application.
+ * @param acceptor      Address of the broker's acceptor (ex. {@code vm://0}). Should be used as {@code url} property.
+ * @param persistent    Whether messages are persisted to journal.
+ * @param dataDirectory Root directory of journal, bindings, paging and large messages. Used if {@code persistent}
+ *                      is set only.
+ */
+public record EmbeddedBrokerProperties(@DefaultValue("false") boolean enabled,
+                                       @DefaultValue("vm://0") String acceptor,
+                                       @DefaultValue("false") boolean persistent,
+                                       @DefaultValue("data/artemis") String dataDirectory) {
+}
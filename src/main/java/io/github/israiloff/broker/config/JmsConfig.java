@@ -5,21 +5,26 @@ import jakarta.jms.ConnectionFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
 import org.apache.activemq.artemis.jms.client.ActiveMQQueueConnectionFactory;
 import org.apache.activemq.artemis.jms.client.ActiveMQTopicConnectionFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.jms.annotation.EnableJms;
+import org.springframework.jms.connection.CachingConnectionFactory;
 import org.springframework.jms.support.converter.MappingJackson2MessageConverter;
 import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.jms.support.converter.MessageType;
+import org.springframework.util.unit.DataSize;
 
 import java.util.Objects;
 
 /**
- * JMS related common configurations.
+ * JMS related common configurations. Native image reachability metadata of the library is registered by
+ * {@link BrokerRuntimeHints}.
  */
 @SuppressWarnings("SpringFacetCodeInspection")
 @EnableJms
@@ -27,6 +32,7 @@ import java.util.Objects;
 @Configuration
 @RequiredArgsConstructor
 @EnableConfigurationProperties(value = {JmsProperties.class})
+@ImportRuntimeHints(BrokerRuntimeHints.class)
 public class JmsConfig {
 
     /**
@@ -34,30 +40,83 @@ public class JmsConfig {
      */
     public static final String CONNECTION_FACTORY = "cmArtemisConnectionFactory";
 
+    /**
+     * Name of the session caching artemis connection factory bean used for publishing.
+     */
+    public static final String PUBLISHER_CONNECTION_FACTORY = "cmArtemisPublisherConnectionFactory";
+
     /**
      * Name of the default artemis message converter bean.
      */
     public static final String MESSAGE_CONVERTER = "cmArtemisMessageConverter";
 
     /**
-     * Connection factory behaviour defined bean.
+     * Connection factory behaviour defined bean. Confirmation window is enabled for asynchronous publishing, so that
+     * sends are confirmed by the broker asynchronously.
      *
      * @param properties JMS external properties.
      * @return Instance of configured connection factory.
      */
-    @SneakyThrows
     @Bean(CONNECTION_FACTORY)
     public ConnectionFactory getConnectionFactory(JmsProperties properties) {
         log.debug("getConnectionFactory started for broker url : {}", properties.url());
+        return createConnectionFactory(properties, toWindowSize(properties.consumer().windowSize()));
+    }
+
+    /**
+     * Creates artemis connection factory with flow control windows configured by properties.
+     *
+     * @param properties         JMS external properties.
+     * @param consumerWindowSize Size of consumer window in bytes.
+     * @return Instance of configured connection factory.
+     */
+    @SneakyThrows
+    public static ActiveMQConnectionFactory createConnectionFactory(JmsProperties properties, int consumerWindowSize) {
         var connectionFactory = Objects.equals(properties.exchangeType(), ExchangeType.TOPIC)
                 ? new ActiveMQTopicConnectionFactory()
                 : new ActiveMQQueueConnectionFactory();
         connectionFactory.setBrokerURL(properties.url());
         connectionFactory.setUser(properties.user());
         connectionFactory.setPassword(properties.password());
+        connectionFactory.setConsumerWindowSize(consumerWindowSize);
+        connectionFactory.setProducerWindowSize(toWindowSize(properties.publisher().producerWindowSize()));
+        if (properties.publisher().async()) {
+            connectionFactory.setConfirmationWindowSize(
+                    toWindowSize(properties.publisher().confirmationWindowSize()));
+        }
         return connectionFactory;
     }
 
+    /**
+     * Converts window size to bytes.
+     *
+     * @param windowSize Window size.
+     * @return Window size in bytes. Negative sizes are converted to {@code -1} (i.e. unbounded window).
+     */
+    public static int toWindowSize(DataSize windowSize) {
+        return windowSize.isNegative() ? -1 : Math.toIntExact(windowSize.toBytes());
+    }
+
+    /**
+     * Publishing connection factory defined bean. Keeps single shared connection with bounded cache of sessions and
+     * per destination cached producers, so that sends don't open and close session/producer each time.
+     *
+     * @param connectionFactory Target connection factory.
+     * @param properties        JMS external properties.
+     * @return Instance of session caching connection factory.
+     */
+    @Bean(PUBLISHER_CONNECTION_FACTORY)
+    public ConnectionFactory getPublisherConnectionFactory(
+            @Qualifier(CONNECTION_FACTORY) ConnectionFactory connectionFactory, JmsProperties properties) {
+        log.debug("getPublisherConnectionFactory started with session cache size : {}",
+                properties.publisher().sessionCacheSize());
+        var cachingConnectionFactory = new CachingConnectionFactory(connectionFactory);
+        cachingConnectionFactory.setSessionCacheSize(properties.publisher().sessionCacheSize());
+        cachingConnectionFactory.setCacheProducers(true);
+        cachingConnectionFactory.setCacheConsumers(false);
+        return cachingConnectionFactory;
+    }
+
     /**
      * JMS messages' serialization/deserialization rules defined bean.
      *
@@ -1,15 +1,34 @@
 package io.github.israiloff.broker.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 /**
  * Main JMS external properties.
  *
- * @param url          Address of message broker (ex. {@code tcp://localhost:61616}).
- * @param user         Username for passing message broker's security procedure.
- * @param password     Password of {@code user}.
- * @param exchangeType Type of exchange.
+ * @param url           Address of message broker (ex. {@code tcp://localhost:61616}).
+ * @param user          Username for passing message broker's security procedure.
+ * @param password      Password of {@code user}.
+ * @param exchangeType  Type of exchange.
+ * @param publisher     Message publishing properties.
+ * @param consumer      Message consumption properties.
+ * @param codec         Payload codecs properties.
+ * @param compression   Payload compression properties.
+ * @param embedded      Embedded in-VM broker properties.
+ * @param local         Local (in-process) dispatch properties.
+ * @param deduplication Deduplication properties.
+ * @param stream        Streaming of large messages properties.
+ * @param outbox        Local store-and-forward outbox properties.
  */
 @ConfigurationProperties(prefix = "io.github.israiloff.broker")
-public record JmsProperties(String url, String user, String password, ExchangeType exchangeType) {
+public record JmsProperties(String url, String user, String password, ExchangeType exchangeType,
+                            @DefaultValue PublisherProperties publisher,
+                            @DefaultValue ConsumerProperties consumer,
+                            @DefaultValue CodecProperties codec,
+                            @DefaultValue CompressionProperties compression,
+                            @DefaultValue EmbeddedBrokerProperties embedded,
+                            @DefaultValue LocalDispatchProperties local,
+                            @DefaultValue DeduplicationProperties deduplication,
+                            @DefaultValue StreamProperties stream,
+                            @DefaultValue OutboxProperties outbox) {
 }
@@ -1,7 +1,7 @@
 package io.github.israiloff.broker.config;
 
+import io.github.israiloff.broker.util.SchedulerUtil;
 import jakarta.jms.ConnectionFactory;
-import jakarta.jms.MessageListener;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
@@ -9,10 +9,11 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jms.core.JmsTemplate;
-import org.springframework.jms.listener.adapter.MessageListenerAdapter;
 import org.springframework.jms.support.converter.MessageConverter;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.Objects;
+import java.util.concurrent.Semaphore;
 
 /**
  * JMS subscriber/publisher related configurations.
@@ -29,9 +30,24 @@ public class JmsSubPubConfig {
      */
     public static final String JMS_TEMPLATE = "cmArtemisJmsTemplate";
 
+    /**
+     * Name of the artemis JMS template bean working with transacted sessions.
+     */
+    public static final String TRANSACTED_JMS_TEMPLATE = "cmArtemisTransactedJmsTemplate";
+
+    /**
+     * Name of the publishing scheduler bean.
+     */
+    public static final String PUBLISHER_SCHEDULER = "cmArtemisPublisherScheduler";
+
+    /**
+     * Name of the bean bounding count of not yet confirmed asynchronous sends.
+     */
+    public static final String PUBLISHER_SEND_WINDOW = "cmArtemisPublisherSendWindow";
+
     @Qualifier(JmsConfig.MESSAGE_CONVERTER)
     private final MessageConverter messageConverter;
-    @Qualifier(JmsConfig.CONNECTION_FACTORY)
+    @Qualifier(JmsConfig.PUBLISHER_CONNECTION_FACTORY)
     private final ConnectionFactory connectionFactory;
 
     /**
@@ -42,22 +58,54 @@ public class JmsSubPubConfig {
      */
     @Bean(JMS_TEMPLATE)
     public JmsTemplate jmsTemplate(JmsProperties properties) {
-        var template = new JmsTemplate(connectionFactory);
-        template.setMessageConverter(messageConverter);
-        template.setPubSubDomain(Objects.equals(properties.exchangeType(), ExchangeType.TOPIC));
+        return createJmsTemplate(properties);
+    }
+
+    /**
+     * Transacted JMS template creation defined bean. Used for sending batches of messages within single commit.
+     *
+     * @param properties JMS properties.
+     * @return Configured JMS template.
+     */
+    @Bean(TRANSACTED_JMS_TEMPLATE)
+    public JmsTemplate transactedJmsTemplate(JmsProperties properties) {
+        var template = createJmsTemplate(properties);
+        template.setSessionTransacted(true);
         return template;
     }
 
     /**
-     * Default message listener adapter defined bean. Used for subscription purposes.
+     * Publishing scheduler defined bean. All blocking sends are performed on it, so the callers' threads (e.g. event
+     * loop) are never blocked. Thread count matches the size of the publishing session cache. The scheduler is
+     * dedicated to publishing, so that slow subscribers can't delay publishes.
+     *
+     * @param properties    JMS properties.
+     * @param schedulerUtil Scheduler utilities.
+     * @return Configured scheduler.
+     */
+    @Bean(value = PUBLISHER_SCHEDULER, destroyMethod = "dispose")
+    public Scheduler publisherScheduler(JmsProperties properties, SchedulerUtil schedulerUtil) {
+        var publisher = properties.publisher();
+        return schedulerUtil.newScheduler("broker-publisher", publisher.sessionCacheSize(),
+                publisher.queueCapacity(), publisher.virtualThreads(), publisher.rejection());
+    }
+
+    /**
+     * Window of asynchronous sends defined bean. A permit is held from send until the broker confirms the message, so
+     * that publishing threads are blocked if there are too many unconfirmed messages.
      *
-     * @param listener Target message listener.
-     * @return Configured message listener adapter.
-     */
-    @Bean
-    public MessageListenerAdapter messageListenerAdapter(MessageListener listener) {
-        var adapter = new MessageListenerAdapter(listener);
-        adapter.setDefaultListenerMethod("onMessage");
-        return adapter;
+     * @param properties JMS properties.
+     * @return Semaphore of unconfirmed sends.
+     */
+    @Bean(PUBLISHER_SEND_WINDOW)
+    public Semaphore publisherSendWindow(JmsProperties properties) {
+        return new Semaphore(properties.publisher().maxPendingSends());
+    }
+
+    private JmsTemplate createJmsTemplate(JmsProperties properties) {
+        var template = new JmsTemplate(connectionFactory);
+        template.setMessageConverter(messageConverter);
+        template.setPubSubDomain(Objects.equals(properties.exchangeType(), ExchangeType.TOPIC));
+        return template;
     }
 }
@@ -0,0 +1,17 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Ordered handling lanes related external properties (see {@code Subscriber#getLanes()}).
+ *
+ * @param queueCapacity  Maximum count of handlings waiting in single lane, including the running one.
+ * @param virtualThreads Whether threads of lanes' schedulers should be virtual (takes effect on Java 21+ only).
+ * @param rejection      Policy of handling messages once lane is full. Since running the handling on the caller's
+ *                       thread would break order of the lane, {@link RejectionPolicy#CALLER_RUNS} makes the caller
+ *                       wait for a free place in the lane instead.
+ */
+public record LaneProperties(@DefaultValue("1000") int queueCapacity,
+                             @DefaultValue("false") boolean virtualThreads,
+                             @DefaultValue("CALLER_RUNS") RejectionPolicy rejection) {
+}
@@ -0,0 +1,17 @@
+package io.github.israiloff.broker.config;
+
+/**
+ * Delivery semantics of locally dispatched messages.
+ */
+public enum LocalDelivery {
+
+    /**
+     * Publishing completes after all matching subscribers handled the message.
+     */
+    AWAIT,
+
+    /**
+     * Publishing completes immediately, subscribers handle the message asynchronously.
+     */
+    FIRE_AND_FORGET
+}
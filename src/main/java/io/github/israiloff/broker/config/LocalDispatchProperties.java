@@ -0,0 +1,25 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Local (in-process) dispatch related external properties. If enabled, messages published to a topic having
+ * in-process subscribers are handed to them directly, without serialization and round trip through the broker.
+ *
+ * @param enabled       Whether local dispatch is enabled.
+ * @param delivery      Delivery semantics of locally dispatched messages.
+ * @param forward       Whether locally dispatched messages are also published to the broker for other applications
+ *                      and other instances of the application. Forwarded messages are not handled once again by the
+ *                      subscriptions which have handled them locally.
+ * @param threads       Count of threads of the scheduler dispatching messages in {@link LocalDelivery#FIRE_AND_FORGET}
+ *                      mode.
+ * @param queueCapacity Maximum count of messages waiting for a free thread of the dispatching scheduler.
+ * @param rejection     Policy of handling messages once the dispatching scheduler is saturated.
+ */
+public record LocalDispatchProperties(@DefaultValue("false") boolean enabled,
+                                      @DefaultValue("AWAIT") LocalDelivery delivery,
+                                      @DefaultValue("true") boolean forward,
+                                      @DefaultValue("4") int threads,
+                                      @DefaultValue("10000") int queueCapacity,
+                                      @DefaultValue("CALLER_RUNS") RejectionPolicy rejection) {
+}
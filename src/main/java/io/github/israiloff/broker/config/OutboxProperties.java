@@ -0,0 +1,35 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Local store-and-forward outbox related external properties.
+ *
+ * @param enabled       Whether published messages are appended to the local outbox log and forwarded to the broker
+ *                      in background, so that publishing completes once the message is written locally.
+ * @param directory     Directory of the outbox log's segments and checkpoint.
+ * @param segmentSize   Size of single segment of the outbox log. Limits size of single message too.
+ * @param maxSize       Maximum size of not yet forwarded messages of the outbox log (rounded down to whole segments,
+ *                      at least two of them).
+ * @param rejection     Policy of handling messages published once the outbox log is full. Since the outbox has no
+ *                      threads to run on, {@link RejectionPolicy#CALLER_RUNS} sends the message to the broker directly,
+ *                      bypassing the outbox.
+ * @param force         Whether each append is forced to the storage device. Otherwise, appended messages survive
+ *                      crash of the application, but not crash of the operating system.
+ * @param batchSize     Maximum count of messages forwarded to the broker within single transaction.
+ * @param drainInterval Maximum idle time of the forwarder while there is nothing to forward.
+ * @param retryInterval Delay before retrying to forward messages after failure.
+ */
+public record OutboxProperties(@DefaultValue("false") boolean enabled,
+                               @DefaultValue("data/outbox") String directory,
+                               @DefaultValue("64MB") DataSize segmentSize,
+                               @DefaultValue("1GB") DataSize maxSize,
+                               @DefaultValue("ABORT") RejectionPolicy rejection,
+                               @DefaultValue("false") boolean force,
+                               @DefaultValue("500") int batchSize,
+                               @DefaultValue("100ms") Duration drainInterval,
+                               @DefaultValue("1s") Duration retryInterval) {
+}
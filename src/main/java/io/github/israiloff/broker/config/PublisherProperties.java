@@ -0,0 +1,52 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Message publishing related external properties.
+ *
+ * @param sessionCacheSize       Count of pooled sessions (and publishing threads) used to send messages.
+ * @param queueCapacity          Maximum count of publish tasks waiting for a free session.
+ * @param virtualThreads         Whether publishing threads should be virtual (takes effect on Java 21+ only).
+ * @param batchSize              Maximum count of messages sent within single transaction by batch publishing.
+ * @param batchTimeout           Maximum time to collect messages of single batch.
+ * @param async                  Whether messages are sent asynchronously, i.e. publishing completes when the broker
+ *                               confirms the message, without blocking publishing thread until then.
+ * @param confirmationWindowSize Size of the window of sent but not yet confirmed messages' data. Used in
+ *                               {@code async} mode only.
+ * @param maxPendingSends        Maximum count of sent but not yet confirmed messages. Used in {@code async} mode only.
+ * @param rejection              Policy of handling publishes once all publishing threads are busy and the queue of
+ *                               publish tasks is full. Only {@link RejectionPolicy#ABORT} is allowed, since
+ *                               {@link RejectionPolicy#CALLER_RUNS} would block the caller's thread (e.g. event loop)
+ *                               by the send.
+ * @param producerWindowSize     Size of producer window, i.e. of messages' data which can be sent without waiting for
+ *                               credits from the broker. {@code -1} means unbounded window.
+ * @param producerWindowSizes    Producer window sizes of specific topics (topic name to size). Applied to single
+ *                               publishes and streams; batches, outbox and replies use the default one.
+ */
+public record PublisherProperties(@DefaultValue("8") int sessionCacheSize,
+                                  @DefaultValue("100000") int queueCapacity,
+                                  @DefaultValue("false") boolean virtualThreads,
+                                  @DefaultValue("500") int batchSize,
+                                  @DefaultValue("100ms") Duration batchTimeout,
+                                  @DefaultValue("false") boolean async,
+                                  @DefaultValue("1MB") DataSize confirmationWindowSize,
+                                  @DefaultValue("10000") int maxPendingSends,
+                                  @DefaultValue("ABORT") RejectionPolicy rejection,
+                                  @DefaultValue("64KB") DataSize producerWindowSize,
+                                  @DefaultValue Map<String, DataSize> producerWindowSizes) {
+
+    /**
+     * Validates properties.
+     */
+    public PublisherProperties {
+        if (rejection != RejectionPolicy.ABORT) {
+            throw new IllegalArgumentException("publisher rejection policy must be ABORT, " + rejection
+                    + " would block the caller's thread by the send");
+        }
+    }
+}
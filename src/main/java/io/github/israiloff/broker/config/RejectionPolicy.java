@@ -0,0 +1,17 @@
+package io.github.israiloff.broker.config;
+
+/**
+ * Policy of handling tasks submitted to saturated scheduler, i.e. when all its threads are busy and its queue is full.
+ */
+public enum RejectionPolicy {
+
+    /**
+     * Task fails with {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    ABORT,
+
+    /**
+     * Task is executed on the submitting thread, which slows down the submitter (e.g. consumption from the broker).
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,13 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Streaming of large messages related external properties.
+ *
+ * @param prefetch       Maximum count of chunks of published content requested in advance.
+ * @param bufferedChunks Maximum count of chunks of received content buffered until consumed by the subscriber.
+ */
+public record StreamProperties(@DefaultValue("4") int prefetch,
+                               @DefaultValue("16") int bufferedChunks) {
+}
@@ -0,0 +1,69 @@
+package io.github.israiloff.broker.config;
+
+import io.github.israiloff.broker.service.BatchSubscriber;
+import io.github.israiloff.broker.service.Subscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.ResolvableType;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Ahead-of-time processor registering binding reflection hints for payload types of {@link Subscriber} and
+ * {@link BatchSubscriber} beans. Payload type is resolved from the generic type of the bean, since
+ * {@code getMsgClass()} is available at runtime only, so subscribers declared with raw types are skipped.
+ */
+@Slf4j
+public class SubscriberAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    /**
+     * Collects payload types of subscribers.
+     *
+     * @param beanFactory Bean factory of the application.
+     * @return Contribution of payload types' hints. Null if there are no resolvable payload types.
+     */
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        var payloadTypes = new LinkedHashSet<Class<?>>();
+        payloadTypes.addAll(getPayloadTypes(beanFactory, Subscriber.class));
+        payloadTypes.addAll(getPayloadTypes(beanFactory, BatchSubscriber.class));
+        if (payloadTypes.isEmpty()) {
+            return null;
+        }
+
+        log.debug("processAheadOfTime registered subscribers' payload types : {}", payloadTypes);
+        return (generationContext, code) -> bindingRegistrar.registerReflectionHints(
+                generationContext.getRuntimeHints().reflection(), payloadTypes.toArray(Class<?>[]::new));
+    }
+
+    private Set<Class<?>> getPayloadTypes(ConfigurableListableBeanFactory beanFactory, Class<?> subscriberType) {
+        var result = new LinkedHashSet<Class<?>>();
+        Arrays.stream(beanFactory.getBeanNamesForType(subscriberType, true, false)).forEach(beanName -> {
+            var payloadType = getBeanType(beanFactory, beanName).as(subscriberType).getGeneric(0).resolve();
+            if (payloadType == null) {
+                log.warn("payload type of subscriber {} can't be resolved ahead of time, register it via "
+                        + "@RegisterReflectionForBinding", beanName);
+                return;
+            }
+            result.add(payloadType);
+        });
+        return result;
+    }
+
+    private ResolvableType getBeanType(ConfigurableListableBeanFactory beanFactory, String beanName) {
+        var beanType = beanFactory.getMergedBeanDefinition(beanName).getResolvableType();
+        if (beanType.resolve() != null) {
+            return beanType;
+        }
+
+        var type = beanFactory.getType(beanName, false);
+        return type != null ? ResolvableType.forClass(type) : ResolvableType.NONE;
+    }
+}
@@ -1,26 +1,52 @@
 package io.github.israiloff.broker.config;
 
 import jakarta.jms.ConnectionFactory;
+import jakarta.jms.MessageListener;
 import jakarta.jms.Session;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.Lifecycle;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jms.connection.SingleConnectionFactory;
 import org.springframework.jms.listener.SimpleMessageListenerContainer;
-import org.springframework.jms.listener.adapter.MessageListenerAdapter;
 import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.util.ClassUtils;
+import io.github.israiloff.broker.codec.CodecRegistry;
+import io.github.israiloff.broker.metrics.BrokerMetrics;
+import io.github.israiloff.broker.service.BatchSubscriber;
 import io.github.israiloff.broker.service.Subscriber;
+import io.github.israiloff.broker.service.StreamSubscriber;
+import io.github.israiloff.broker.service.impl.BatchListenerContainer;
+import io.github.israiloff.broker.service.impl.BatchMessageListener;
+import io.github.israiloff.broker.service.impl.LocalDispatcher;
+import io.github.israiloff.broker.service.impl.MainMessageListener;
+import io.github.israiloff.broker.service.impl.StreamMessageListener;
+import io.github.israiloff.broker.service.impl.SubscriberRegistry;
+import io.github.israiloff.broker.service.impl.WindowController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Subscription related specific beans configuration.
  */
 @SuppressWarnings({"rawtypes", "SpringFacetCodeInspection"})
+@Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class SubscriberConfig {
@@ -30,37 +56,343 @@ public class SubscriberConfig {
     @Qualifier(JmsConfig.CONNECTION_FACTORY)
     private final ConnectionFactory connectionFactory;
     private final GenericApplicationContext applicationContext;
+    private final Map<Integer, ConnectionFactory> windowConnectionFactories = new ConcurrentHashMap<>();
 
     /**
-     * Multiple JMS message listener container beans creation point. Created message listener containers' count will be
-     * equal to implementations of {@link Subscriber} (i.e. each {@link Subscriber} will have its own container).
+     * Multiple JMS message listener container beans creation point. Each distinct subscription (i.e. topic name not
+     * covered by wildcard topic of another {@link Subscriber}) has its own container. Messages of a container are
+     * dispatched to all subscribers of the container matching the message's topic. Subscribers consuming topics via
+     * shared subscription have their own containers. Containers are spread across {@code consumer.connections} shared
+     * connections (each container holds its own sessions) and started in parallel. Payload codecs are prepared for
+     * all subscribers' types before containers start. Each {@link BatchSubscriber} has its own batch receiving
+     * container. Containers of subscribers specifying consumer window consume via connection of the largest specified
+     * window; if adaptive window is enabled, windows of the other subscribers' containers are controlled by
+     * {@link WindowController}. Subscriptions are registered in {@link LocalDispatcher}, so that messages already
+     * dispatched locally are skipped.
      *
-     * @param subscribers            List of implemented {@link Subscriber}.
-     * @param messageListenerAdapter Default message listener adapter.
-     * @param properties             JMS properties.
+     * @param registry          Routing index of implemented {@link Subscriber}.
+     * @param listener          Main message listener.
+     * @param properties        JMS properties.
+     * @param codecRegistry     Registry of payload codecs.
+     * @param metrics           Instrumentation of consumption.
+     * @param streamSubscribers Subscribers of large messages. Each of them has its own container.
+     * @param streamListener    Listener of large messages.
+     * @param batchSubscribers  Subscribers handling messages in batches. Each of them has its own container.
+     * @param batchListener     Listener of batches.
+     * @param windowController  Controller of adaptive consumer windows.
+     * @param localDispatcher   Dispatcher of messages to in-process subscribers.
      * @return Runner's bean.
      */
     @Bean
-    public ApplicationRunner runner(List<Subscriber> subscribers, MessageListenerAdapter messageListenerAdapter,
-                                    JmsProperties properties) {
-        return args -> subscribers.forEach(subscriber -> {
-            var container = createContainer(messageListenerAdapter, subscriber, properties);
-            var beanName = "messageListenerContainer_" + subscriber.getTopic();
-            applicationContext.registerBean(beanName, SimpleMessageListenerContainer.class, () -> container);
-            container.start();
+    public ApplicationRunner runner(SubscriberRegistry registry, MainMessageListener listener,
+                                    JmsProperties properties, CodecRegistry codecRegistry, BrokerMetrics metrics,
+                                    ObjectProvider<StreamSubscriber> streamSubscribers,
+                                    StreamMessageListener streamListener,
+                                    ObjectProvider<BatchSubscriber> batchSubscribers,
+                                    BatchMessageListener batchListener,
+                                    WindowController windowController,
+                                    LocalDispatcher localDispatcher) {
+        return args -> {
+            registry.getSubscriptions().values().stream()
+                    .flatMap(List::stream)
+                    .forEach(subscriber -> metrics.handler(subscriber, subscriber.getTopic()));
+
+            registry.getSubscriptions().values().stream()
+                    .flatMap(List::stream)
+                    .map(subscriber -> (Class<?>) subscriber.getMsgClass())
+                    .distinct()
+                    .forEach(codecRegistry::prepare);
+
+            batchSubscribers.orderedStream().forEach(subscriber -> {
+                metrics.handler(subscriber, subscriber.getTopic());
+                codecRegistry.prepare(subscriber.getMsgClass());
+            });
+
+            var connectionFactories = createConnectionFactories(properties);
+            var containers = new ArrayList<Lifecycle>();
+            registry.getSubscriptions(subscriber -> !isShared(subscriber, properties))
+                    .forEach((subscription, subscribers) -> {
+                        localDispatcher.register(subscription, !isPubSubDomain(properties), subscribers);
+                        containers.add(registerContainer(createWindowedContainer(connectionFactory ->
+                                        createContainer(listener, connectionFactory, subscription, null, subscribers,
+                                                properties),
+                                nextConnectionFactory(connectionFactories, containers), subscription, subscribers,
+                                !isPubSubDomain(properties), properties, metrics, windowController), subscription));
+                    });
+
+            registry.getSubscriptions().values().stream()
+                    .flatMap(List::stream)
+                    .filter(subscriber -> isShared(subscriber, properties))
+                    .forEach(subscriber -> {
+                        var subscriptionName = getSubscriptionName(subscriber.getSubscriptionName(), subscriber);
+                        localDispatcher.register(subscriptionName, true, List.of(subscriber));
+                        containers.add(registerContainer(createWindowedContainer(connectionFactory ->
+                                        createContainer(listener, connectionFactory, subscriber.getTopic(),
+                                                subscriptionName, List.of(subscriber), properties),
+                                nextConnectionFactory(connectionFactories, containers), subscriptionName,
+                                List.of(subscriber), true, properties, metrics, windowController),
+                                subscriptionName));
+                    });
+
+            streamSubscribers.orderedStream().forEach(subscriber -> containers.add(registerContainer(
+                    createStreamContainer(streamListener, nextConnectionFactory(connectionFactories, containers),
+                            subscriber, properties),
+                    subscriber.getTopic() + "_" + ClassUtils.getUserClass(subscriber).getSimpleName())));
+
+            batchSubscribers.orderedStream().forEach(subscriber -> {
+                var batchConnectionFactory = subscriber.getWindowSize() != null
+                        ? getWindowConnectionFactory(JmsConfig.toWindowSize(subscriber.getWindowSize()), properties)
+                        : nextConnectionFactory(connectionFactories, containers);
+                containers.add(registerContainer(
+                        createBatchContainer(batchListener, batchConnectionFactory, subscriber, properties),
+                        subscriber.getTopic() + "_" + ClassUtils.getUserClass(subscriber).getSimpleName()));
+            });
+
+            containers.forEach(metrics::registerContainer);
+            startContainers(containers);
+            windowController.start();
+        };
+    }
+
+    private List<ConnectionFactory> createConnectionFactories(JmsProperties properties) {
+        var connections = Math.max(properties.consumer().connections(), 1);
+        log.debug("createConnectionFactories started for connections : {}", connections);
+        var result = new ArrayList<ConnectionFactory>(connections);
+        for (var index = 0; index < connections; index++) {
+            var singleConnectionFactory = new SingleConnectionFactory(connectionFactory);
+            singleConnectionFactory.setReconnectOnException(true);
+            applicationContext.registerBean("consumerConnectionFactory_" + index, SingleConnectionFactory.class,
+                    () -> singleConnectionFactory);
+            result.add(singleConnectionFactory);
+        }
+        return result;
+    }
+
+    private ConnectionFactory getWindowConnectionFactory(int windowSize, JmsProperties properties) {
+        return windowConnectionFactories.computeIfAbsent(windowSize, size -> {
+            log.debug("getWindowConnectionFactory started for window size : {}", size);
+            var singleConnectionFactory = new SingleConnectionFactory(
+                    JmsConfig.createConnectionFactory(properties, size));
+            singleConnectionFactory.setReconnectOnException(true);
+            applicationContext.registerBean("consumerConnectionFactory_window_" + size, SingleConnectionFactory.class,
+                    () -> singleConnectionFactory);
+            return singleConnectionFactory;
         });
     }
 
-    private SimpleMessageListenerContainer createContainer(MessageListenerAdapter messageListenerAdapter,
-                                                           Subscriber subscriber, JmsProperties properties) {
+    private SimpleMessageListenerContainer createWindowedContainer(
+            Function<ConnectionFactory, SimpleMessageListenerContainer> containerFactory,
+            ConnectionFactory connectionFactory, String subscription, List<Subscriber> subscribers, boolean resizable,
+            JmsProperties properties, BrokerMetrics metrics, WindowController windowController) {
+        var windowSizes = subscribers.stream()
+                .map(Subscriber::getWindowSize)
+                .filter(Objects::nonNull)
+                .mapToInt(JmsConfig::toWindowSize)
+                .toArray();
+        if (windowSizes.length > 0) {
+            var windowSize = Arrays.stream(windowSizes).anyMatch(size -> size < 0)
+                    ? -1
+                    : Arrays.stream(windowSizes).max().getAsInt();
+            return containerFactory.apply(getWindowConnectionFactory(windowSize, properties));
+        }
+
+        if (!properties.consumer().adaptiveWindow().enabled()) {
+            return containerFactory.apply(connectionFactory);
+        }
+
+        if (!resizable) {
+            log.debug("adaptive window isn't applied to non shared topic subscription {}, since its messages would be "
+                    + "lost while resizing", subscription);
+            return containerFactory.apply(connectionFactory);
+        }
+
+        var windowSize = windowController.getInitialWindowSize();
+        var container = containerFactory.apply(getWindowConnectionFactory(windowSize, properties));
+        windowController.register(getContainerBeanName(subscription), container, subscription, subscribers.stream()
+                        .map(subscriber -> metrics.handler(subscriber, subscriber.getTopic()))
+                        .toList(),
+                windowSize, size -> containerFactory.apply(getWindowConnectionFactory(size, properties)));
+        return container;
+    }
+
+    private ConnectionFactory nextConnectionFactory(List<ConnectionFactory> connectionFactories,
+                                                    List<Lifecycle> containers) {
+        return connectionFactories.get(containers.size() % connectionFactories.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Lifecycle> T registerContainer(T container, String name) {
+        applicationContext.registerBean(getContainerBeanName(name), (Class<T>) container.getClass(), () -> container);
+        return container;
+    }
+
+    private String getContainerBeanName(String name) {
+        return "messageListenerContainer_" + name;
+    }
+
+    private void startContainers(List<Lifecycle> containers) {
+        log.debug("startContainers started for containers : {}", containers.size());
+        Flux.fromIterable(containers)
+                .flatMap(container -> Mono.fromRunnable(container::start)
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .then()
+                .block();
+    }
+
+    private SimpleMessageListenerContainer createContainer(MainMessageListener listener,
+                                                           ConnectionFactory connectionFactory, String subscription,
+                                                           String subscriptionName, List<Subscriber> subscribers,
+                                                           JmsProperties properties) {
         var container = new SimpleMessageListenerContainer();
+        var members = Set.copyOf(subscribers);
         container.setConnectionFactory(connectionFactory);
         container.setMessageConverter(messageConverter);
         container.setSessionAcknowledgeMode(Session.SESSION_TRANSACTED);
-        container.setClientId(applicationContext.getId() + "_" + UUID.randomUUID());
-        container.setPubSubDomain(Objects.equals(properties.exchangeType(), ExchangeType.TOPIC));
+        container.setPubSubDomain(isPubSubDomain(properties));
+        container.setDestinationName(subscription);
+        var name = subscriptionName != null ? subscriptionName : subscription;
+        container.setMessageListener((MessageListener) message -> listener.onMessage(message, name, members));
+        container.setMessageSelector(getMessageSelector(subscribers));
+        if (subscriptionName != null) {
+            log.debug("shared subscription {} created for topic : {}", subscriptionName, subscription);
+            container.setSubscriptionShared(true);
+            container.setSubscriptionDurable(properties.consumer().durable());
+            container.setSubscriptionName(subscriptionName);
+        }
+        container.setConcurrentConsumers(
+                getConcurrency(subscription, subscribers, properties, subscriptionName != null));
+        return container;
+    }
+
+    private SimpleMessageListenerContainer createStreamContainer(StreamMessageListener listener,
+                                                                 ConnectionFactory connectionFactory,
+                                                                 StreamSubscriber subscriber,
+                                                                 JmsProperties properties) {
+        var container = new SimpleMessageListenerContainer();
+        var shared = isShared(subscriber.getSubscriptionName(), properties);
+        container.setConnectionFactory(connectionFactory);
+        container.setSessionAcknowledgeMode(Session.SESSION_TRANSACTED);
+        container.setPubSubDomain(isPubSubDomain(properties));
+        container.setDestinationName(subscriber.getTopic());
+        container.setMessageListener((MessageListener) message -> listener.onMessage(message, subscriber));
+        container.setMessageSelector(subscriber.getFilter() != null ? subscriber.getFilter().toSelector() : null);
+        if (shared) {
+            var subscriptionName = getSubscriptionName(subscriber.getSubscriptionName(), subscriber);
+            log.debug("shared subscription {} created for stream topic : {}", subscriptionName, subscriber.getTopic());
+            container.setSubscriptionShared(true);
+            container.setSubscriptionDurable(properties.consumer().durable());
+            container.setSubscriptionName(subscriptionName);
+        }
+        container.setConcurrentConsumers(
+                getConcurrency(subscriber.getTopic(), subscriber.getConcurrency(), shared, properties));
+        return container;
+    }
+
+    private BatchListenerContainer createBatchContainer(BatchMessageListener listener,
+                                                        ConnectionFactory connectionFactory,
+                                                        BatchSubscriber subscriber, JmsProperties properties) {
+        var container = new BatchListenerContainer();
+        var shared = isShared(subscriber.getSubscriptionName(), properties);
+        container.setConnectionFactory(connectionFactory);
+        container.setPubSubDomain(isPubSubDomain(properties));
         container.setDestinationName(subscriber.getTopic());
-        container.setMessageListener(messageListenerAdapter);
+        var subscription = shared
+                ? getSubscriptionName(subscriber.getSubscriptionName(), subscriber)
+                : subscriber.getTopic() + "_" + ClassUtils.getUserClass(subscriber).getSimpleName();
+        container.setBeanName("batch-" + subscription);
+        container.setBatchListener(messages -> listener.onMessages(messages, subscription, subscriber));
+        container.setMessageSelector(subscriber.getFilter() != null ? subscriber.getFilter().toSelector() : null);
+        if (shared) {
+            container.setSubscriptionShared(true);
+            container.setSubscriptionName(subscription);
+            container.setSubscriptionDurable(properties.consumer().durable());
+        }
+        container.setReceiveTimeout(properties.consumer().receiveTimeout().toMillis());
+        container.setRecoveryInterval(properties.consumer().recoveryInterval().toMillis());
+        container.setConcurrentConsumers(
+                getConcurrency(subscriber.getTopic(), subscriber.getConcurrency(), shared, properties));
+        container.setBatchSize(subscriber.getBatchSize() > 0
+                ? subscriber.getBatchSize()
+                : properties.consumer().batchSize());
+        container.setBatchTimeout(Objects.requireNonNullElse(subscriber.getBatchTimeout(),
+                properties.consumer().batchTimeout()));
+        container.afterPropertiesSet();
         return container;
     }
+
+    private String getMessageSelector(List<Subscriber> subscribers) {
+        if (subscribers.stream().anyMatch(subscriber -> subscriber.getFilter() == null)) {
+            return null;
+        }
+
+        var selector = subscribers.stream()
+                .map(subscriber -> subscriber.getFilter().toSelector())
+                .distinct()
+                .map(filter -> "(" + filter + ")")
+                .collect(Collectors.joining(" OR "));
+        log.debug("message selector created for subscribers' filters : {}", selector);
+        return selector;
+    }
+
+    private boolean isShared(Subscriber subscriber, JmsProperties properties) {
+        return isShared(subscriber.getSubscriptionName(), properties);
+    }
+
+    private boolean isShared(String subscriptionName, JmsProperties properties) {
+        return isPubSubDomain(properties) && (properties.consumer().shared() || subscriptionName != null);
+    }
+
+    private String getSubscriptionName(String subscriptionName, Object subscriber) {
+        return subscriptionName != null
+                ? subscriptionName
+                : applicationContext.getId() + "." + ClassUtils.getUserClass(subscriber).getName();
+    }
+
+    private boolean isPubSubDomain(JmsProperties properties) {
+        return Objects.equals(properties.exchangeType(), ExchangeType.TOPIC);
+    }
+
+    private int getConcurrency(String subscription, List<Subscriber> subscribers, JmsProperties properties,
+                               boolean shared) {
+        var concurrency = subscribers.stream()
+                .mapToInt(Subscriber::getConcurrency)
+                .filter(value -> value > 0)
+                .max()
+                .orElse(properties.consumer().concurrency());
+
+        var maxInFlight = 0;
+        if (properties.consumer().mode() == ConsumptionMode.ON_COMPLETION) {
+            maxInFlight = subscribers.stream()
+                    .mapToInt(Subscriber::getMaxInFlight)
+                    .filter(value -> value > 0)
+                    .max()
+                    .orElse(properties.consumer().maxInFlight());
+        }
+
+        if (isPubSubDomain(properties) && !shared) {
+            if (maxInFlight > 1) {
+                log.warn("maxInFlight {} of topic {} takes no effect, messages of non shared subscription are "
+                                + "handled one at a time, consume it via shared subscription instead",
+                        maxInFlight, subscription);
+            }
+            if (concurrency > 1) {
+                log.warn("topic {} can't be consumed concurrently by non shared subscription, concurrency reduced to 1",
+                        subscription);
+            }
+            return 1;
+        }
+
+        return Math.max(Math.max(concurrency, maxInFlight), 1);
+    }
+
+    private int getConcurrency(String topic, int concurrency, boolean shared, JmsProperties properties) {
+        var result = concurrency > 0 ? concurrency : properties.consumer().concurrency();
+        if (isPubSubDomain(properties) && !shared && result > 1) {
+            log.warn("topic {} can't be consumed concurrently by non shared subscription, concurrency reduced to 1",
+                    topic);
+            return 1;
+        }
+
+        return Math.max(result, 1);
+    }
 }
@@ -0,0 +1,16 @@
+package io.github.israiloff.broker.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Payload compression related external properties of specific topic.
+ *
+ * @param enabled   Whether payloads of topic are compressed.
+ * @param algorithm Name of compressor. Null means that the default one is used.
+ * @param threshold Minimum size of payload to compress. Null means that the default one is used.
+ */
+public record TopicCompressionProperties(@DefaultValue("true") boolean enabled,
+                                         String algorithm,
+                                         DataSize threshold) {
+}
@@ -0,0 +1,260 @@
+package io.github.israiloff.broker.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.Lifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Micrometer instrumentation of publishing and consumption. Meters are registered once per topic, subscription or
+ * subscriber and cached, so that the hot path doesn't allocate tags. Consumption is tagged by subscription rather than
+ * by topic of incoming message, so that wildcard subscriptions don't produce unbounded count of meters. If there is no
+ * {@link MeterRegistry} in the context, meters are no-op.
+ */
+@Slf4j
+@Component
+public class BrokerMetrics {
+
+    /**
+     * Name of the tag containing topic name.
+     */
+    public static final String TOPIC_TAG = "topic";
+
+    /**
+     * Name of the tag containing subscription name.
+     */
+    public static final String SUBSCRIPTION_TAG = "subscription";
+
+    /**
+     * Name of the tag containing class name of subscriber.
+     */
+    public static final String SUBSCRIBER_TAG = "subscriber";
+
+    /**
+     * Name of the tag containing scheduler name.
+     */
+    public static final String SCHEDULER_TAG = "scheduler";
+
+    private final MeterRegistry registry;
+    private final Map<String, PublisherMeters> publisherMeters = new ConcurrentHashMap<>();
+    private final Map<String, ConsumerMeters> consumerMeters = new ConcurrentHashMap<>();
+    private final Map<Object, HandlerMeters> handlerMeters = new ConcurrentHashMap<>();
+    private final Set<Lifecycle> containers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor.
+     *
+     * @param registryProvider Provider of meter registry.
+     */
+    public BrokerMetrics(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registry = registryProvider.getIfAvailable(CompositeMeterRegistry::new);
+        Gauge.builder("broker.containers", containers, BrokerMetrics::countRunning)
+                .description("Count of running listener containers")
+                .register(registry);
+    }
+
+    /**
+     * Gets meters of publishing to specified topic.
+     *
+     * @param topic Name of target topic.
+     * @return Publisher meters.
+     */
+    public PublisherMeters publisher(String topic) {
+        return publisherMeters.computeIfAbsent(topic, key -> new PublisherMeters(
+                Timer.builder("broker.publish")
+                        .description("Send latency of published messages")
+                        .tags(TOPIC_TAG, key)
+                        .register(registry),
+                Counter.builder("broker.publish.errors")
+                        .description("Count of failed publishes")
+                        .tags(TOPIC_TAG, key)
+                        .register(registry)));
+    }
+
+    /**
+     * Gets meters of consumption of specified subscription.
+     *
+     * @param subscription Name of subscription (i.e. subscribed topic or name of shared subscription).
+     * @return Consumer meters.
+     */
+    public ConsumerMeters consumer(String subscription) {
+        return consumerMeters.computeIfAbsent(subscription, key -> new ConsumerMeters(
+                Timer.builder("broker.consume.lag")
+                        .description("Time between publishing and consumption of message")
+                        .tags(SUBSCRIPTION_TAG, key)
+                        .register(registry),
+                Timer.builder("broker.consume.extraction")
+                        .description("Extraction time of topic, body and headers of message")
+                        .tags(SUBSCRIPTION_TAG, key)
+                        .register(registry),
+                Timer.builder("broker.consume.deserialization")
+                        .description("Deserialization time of message's body")
+                        .tags(SUBSCRIPTION_TAG, key)
+                        .register(registry)));
+    }
+
+    /**
+     * Gets meters of subscriber's handler.
+     *
+     * @param subscriber Target subscriber.
+     * @param topic      Topic of subscriber.
+     * @return Handler meters.
+     */
+    public HandlerMeters handler(Object subscriber, String topic) {
+        return handlerMeters.computeIfAbsent(subscriber, key -> {
+            var subscriberName = ClassUtils.getUserClass(key).getName();
+            var inFlight = new AtomicInteger();
+            Gauge.builder("broker.handle.inflight", inFlight, AtomicInteger::get)
+                    .description("Count of messages being handled")
+                    .tags(TOPIC_TAG, topic, SUBSCRIBER_TAG, subscriberName)
+                    .register(registry);
+            return new HandlerMeters(
+                    Timer.builder("broker.handle")
+                            .description("Duration of subscriber's handler")
+                            .tags(TOPIC_TAG, topic, SUBSCRIBER_TAG, subscriberName)
+                            .register(registry),
+                    Counter.builder("broker.handle.errors")
+                            .description("Count of failed handlings")
+                            .tags(TOPIC_TAG, topic, SUBSCRIBER_TAG, subscriberName)
+                            .register(registry),
+                    inFlight, new LongAdder(), new LongAdder());
+        });
+    }
+
+    /**
+     * Registers saturation meters of specified scheduler's executor.
+     *
+     * @param name     Name of scheduler.
+     * @param executor Executor of scheduler.
+     * @return Counter of rejected tasks.
+     */
+    public Counter scheduler(String name, ThreadPoolExecutor executor) {
+        Gauge.builder("broker.scheduler.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Count of busy threads of scheduler")
+                .tags(SCHEDULER_TAG, name)
+                .register(registry);
+        Gauge.builder("broker.scheduler.queued", executor, value -> value.getQueue().size())
+                .description("Count of tasks waiting for a free thread of scheduler")
+                .tags(SCHEDULER_TAG, name)
+                .register(registry);
+        Gauge.builder("broker.scheduler.saturation", executor, BrokerMetrics::saturation)
+                .description("Ratio of occupied capacity of scheduler's queue")
+                .tags(SCHEDULER_TAG, name)
+                .register(registry);
+        return Counter.builder("broker.scheduler.rejected")
+                .description("Count of tasks rejected by saturated scheduler")
+                .tags(SCHEDULER_TAG, name)
+                .register(registry);
+    }
+
+    /**
+     * Registers listener container, which is counted by {@code broker.containers} gauge while it is running.
+     *
+     * @param container Listener container.
+     */
+    public void registerContainer(Lifecycle container) {
+        containers.add(container);
+    }
+
+    /**
+     * Unregisters listener container which is discarded (e.g. replaced by another one).
+     *
+     * @param container Listener container.
+     */
+    public void unregisterContainer(Lifecycle container) {
+        containers.remove(container);
+    }
+
+    private static double countRunning(Set<Lifecycle> containers) {
+        return containers.stream().filter(Lifecycle::isRunning).count();
+    }
+
+    private static double saturation(ThreadPoolExecutor executor) {
+        var queue = executor.getQueue();
+        var size = queue.size();
+        var capacity = size + queue.remainingCapacity();
+        return capacity == 0 ? 0 : (double) size / capacity;
+    }
+
+    /**
+     * Publisher meters of a topic.
+     *
+     * @param latency Send latency timer.
+     * @param errors  Failed publishes counter.
+     */
+    public record PublisherMeters(Timer latency, Counter errors) {
+
+        /**
+         * Records successful send.
+         *
+         * @param startNanos Start time of send in nanoseconds.
+         */
+        public void recordSend(long startNanos) {
+            latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Consumer meters of a subscription.
+     *
+     * @param lag             End-to-end lag timer.
+     * @param extraction      Extraction time timer.
+     * @param deserialization Deserialization time timer.
+     */
+    public record ConsumerMeters(Timer lag, Timer extraction, Timer deserialization) {
+
+        /**
+         * Records end-to-end lag of message.
+         *
+         * @param timestamp Publishing timestamp of message in milliseconds. Ignored if not positive.
+         */
+        public void recordLag(long timestamp) {
+            if (timestamp > 0) {
+                lag.record(Math.max(System.currentTimeMillis() - timestamp, 0), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Handler meters of a subscriber. Count and total duration of handlings are also accumulated regardless of meter
+     * registry, so that they are available to adaptive flow control.
+     *
+     * @param duration     Handling duration timer.
+     * @param errors       Failed handlings counter.
+     * @param inFlight     Count of messages being handled.
+     * @param handled      Count of handled messages.
+     * @param handledNanos Total duration of handlings in nanoseconds. Batch handling is accounted once, so that
+     *                     {@code handledNanos / handled} is the average handling time per message.
+     */
+    public record HandlerMeters(Timer duration, Counter errors, AtomicInteger inFlight, LongAdder handled,
+                                LongAdder handledNanos) {
+
+        /**
+         * Records completed handling. Duration is recorded once per invocation of the handler, regardless of count of
+         * messages handled by it.
+         *
+         * @param startNanos Start time of handling in nanoseconds.
+         * @param messages   Count of messages handled together.
+         */
+        public void recordHandling(long startNanos, int messages) {
+            var elapsed = System.nanoTime() - startNanos;
+            duration.record(elapsed, TimeUnit.NANOSECONDS);
+            handled.add(messages);
+            handledNanos.add(elapsed);
+        }
+    }
+}
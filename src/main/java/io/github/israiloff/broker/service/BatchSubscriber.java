@@ -0,0 +1,97 @@
+package io.github.israiloff.broker.service;
+
+import io.github.israiloff.broker.model.Message;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Subscriber handling messages in batches. Batch is received within single transaction and committed once the handler
+ * completes, or rolled back (i.e. redelivered) if it fails.
+ *
+ * @param <TRequestModel> Type of expected incoming message (i.e. Body of message).
+ */
+public interface BatchSubscriber<TRequestModel> {
+
+    /**
+     * Method to get class of expected body.
+     *
+     * @return Expected class.
+     */
+    Class<TRequestModel> getMsgClass();
+
+    /**
+     * Gets name of subscribed topic.
+     *
+     * @return Topic name.
+     */
+    String getTopic();
+
+    /**
+     * Incoming messages' handler.
+     *
+     * @param messages Batch of incoming messages in order of receiving.
+     * @return End operation signal.
+     */
+    Mono<Void> handle(List<Message<TRequestModel>> messages);
+
+    /**
+     * Gets maximum count of messages of single batch.
+     *
+     * @return Maximum count of messages. Non-positive value means that the default one (i.e. {@code consumer.batchSize}
+     * property) is used.
+     */
+    default int getBatchSize() {
+        return 0;
+    }
+
+    /**
+     * Gets maximum time to collect messages of single batch, counted from receiving of the first one.
+     *
+     * @return Maximum time. Null means that the default one (i.e. {@code consumer.batchTimeout} property) is used.
+     */
+    default Duration getBatchTimeout() {
+        return null;
+    }
+
+    /**
+     * Gets name of the shared subscription of subscriber (see {@link Subscriber#getSubscriptionName()}).
+     *
+     * @return Subscription name. Null means that subscription is not shared unless {@code consumer.shared} property
+     * is set.
+     */
+    default String getSubscriptionName() {
+        return null;
+    }
+
+    /**
+     * Gets count of concurrent consumers (sessions) of subscriber, each receiving and handling its own batches. Takes
+     * effect for queues and shared subscriptions only.
+     *
+     * @return Count of consumers. Non-positive value means that the default one (i.e. {@code consumer.concurrency}
+     * property) is used.
+     */
+    default int getConcurrency() {
+        return 0;
+    }
+
+    /**
+     * Gets filter of incoming messages (see {@link Subscriber#getFilter()}).
+     *
+     * @return Predicate over headers. Null means that all messages of the topic are handled.
+     */
+    default HeaderPredicate getFilter() {
+        return null;
+    }
+
+    /**
+     * Gets size of consumer window of subscriber (see {@link Subscriber#getWindowSize()}).
+     *
+     * @return Window size. Null means that the default one (i.e. {@code consumer.windowSize} property) is used.
+     */
+    default DataSize getWindowSize() {
+        return null;
+    }
+}
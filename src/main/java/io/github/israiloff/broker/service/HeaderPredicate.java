@@ -0,0 +1,243 @@
+package io.github.israiloff.broker.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Declarative predicate over headers of incoming message. Compiled into JMS message selector, so that filtered
+ * messages are dropped by the broker and never delivered to the consumer. Can also be tested in-process against
+ * already extracted headers. Missing headers never match, except of {@link #notExists(String)}.
+ */
+public sealed interface HeaderPredicate {
+
+    /**
+     * Creates predicate matching messages whose header equals to specified value.
+     *
+     * @param name  Header name.
+     * @param value Expected value. String, finite number or boolean.
+     * @return Created predicate.
+     */
+    static HeaderPredicate eq(String name, Object value) {
+        return new Compare(name, "=", value);
+    }
+
+    /**
+     * Creates predicate matching messages whose header exists and doesn't equal to specified value.
+     *
+     * @param name  Header name.
+     * @param value Unexpected value. String, finite number or boolean.
+     * @return Created predicate.
+     */
+    static HeaderPredicate notEq(String name, Object value) {
+        return new Compare(name, "<>", value);
+    }
+
+    /**
+     * Creates predicate matching messages whose numeric header is greater than specified value.
+     *
+     * @param name  Header name.
+     * @param value Lower bound (exclusive).
+     * @return Created predicate.
+     */
+    static HeaderPredicate gt(String name, Number value) {
+        return new Compare(name, ">", value);
+    }
+
+    /**
+     * Creates predicate matching messages whose numeric header is less than specified value.
+     *
+     * @param name  Header name.
+     * @param value Upper bound (exclusive).
+     * @return Created predicate.
+     */
+    static HeaderPredicate lt(String name, Number value) {
+        return new Compare(name, "<", value);
+    }
+
+    /**
+     * Creates predicate matching messages whose string header equals to one of specified values.
+     *
+     * @param name   Header name.
+     * @param values Expected values.
+     * @return Created predicate.
+     */
+    static HeaderPredicate in(String name, String... values) {
+        return new In(name, Set.of(values));
+    }
+
+    /**
+     * Creates predicate matching messages having specified header.
+     *
+     * @param name Header name.
+     * @return Created predicate.
+     */
+    static HeaderPredicate exists(String name) {
+        return new Exists(name, true);
+    }
+
+    /**
+     * Creates predicate matching messages not having specified header.
+     *
+     * @param name Header name.
+     * @return Created predicate.
+     */
+    static HeaderPredicate notExists(String name) {
+        return new Exists(name, false);
+    }
+
+    /**
+     * Combines this predicate with another one by logical AND.
+     *
+     * @param other Another predicate.
+     * @return Combined predicate.
+     */
+    default HeaderPredicate and(HeaderPredicate other) {
+        return new Junction("AND", List.of(this, other));
+    }
+
+    /**
+     * Combines this predicate with another one by logical OR.
+     *
+     * @param other Another predicate.
+     * @return Combined predicate.
+     */
+    default HeaderPredicate or(HeaderPredicate other) {
+        return new Junction("OR", List.of(this, other));
+    }
+
+    /**
+     * Compiles predicate into JMS message selector.
+     *
+     * @return Message selector expression.
+     */
+    String toSelector();
+
+    /**
+     * Tests predicate against headers of message.
+     *
+     * @param headers Headers of message.
+     * @return True if headers match the predicate.
+     */
+    boolean test(Map<String, Object> headers);
+
+    /**
+     * Comparison of header with literal.
+     *
+     * @param name     Header name.
+     * @param operator Comparison operator.
+     * @param value    Literal to compare with.
+     */
+    record Compare(String name, String operator, Object value) implements HeaderPredicate {
+
+        /**
+         * Constructor.
+         *
+         * @param name     Header name.
+         * @param operator Comparison operator.
+         * @param value    Literal to compare with.
+         */
+        public Compare {
+            HeaderSelectors.checkIdentifier(name);
+            HeaderSelectors.checkLiteral(value);
+        }
+
+        @Override
+        public String toSelector() {
+            return name + " " + operator + " " + HeaderSelectors.literal(value);
+        }
+
+        @Override
+        public boolean test(Map<String, Object> headers) {
+            return HeaderSelectors.matches(headers.get(name), operator, value);
+        }
+    }
+
+    /**
+     * Membership of header in set of string literals.
+     *
+     * @param name   Header name.
+     * @param values Expected values.
+     */
+    record In(String name, Set<String> values) implements HeaderPredicate {
+
+        /**
+         * Constructor.
+         *
+         * @param name   Header name.
+         * @param values Expected values.
+         */
+        public In {
+            HeaderSelectors.checkIdentifier(name);
+            if (values.isEmpty()) {
+                throw new IllegalArgumentException("at least one value must be specified for header " + name);
+            }
+        }
+
+        @Override
+        public String toSelector() {
+            return values.stream()
+                    .sorted()
+                    .map(HeaderSelectors::literal)
+                    .collect(Collectors.joining(", ", name + " IN (", ")"));
+        }
+
+        @Override
+        public boolean test(Map<String, Object> headers) {
+            return headers.get(name) instanceof String actual && values.contains(actual);
+        }
+    }
+
+    /**
+     * Existence of header.
+     *
+     * @param name   Header name.
+     * @param exists Whether header should exist.
+     */
+    record Exists(String name, boolean exists) implements HeaderPredicate {
+
+        /**
+         * Constructor.
+         *
+         * @param name   Header name.
+         * @param exists Whether header should exist.
+         */
+        public Exists {
+            HeaderSelectors.checkIdentifier(name);
+        }
+
+        @Override
+        public String toSelector() {
+            return name + (exists ? " IS NOT NULL" : " IS NULL");
+        }
+
+        @Override
+        public boolean test(Map<String, Object> headers) {
+            return (headers.get(name) != null) == exists;
+        }
+    }
+
+    /**
+     * Logical junction of predicates.
+     *
+     * @param operator   Logical operator ({@code AND} or {@code OR}).
+     * @param predicates Joined predicates.
+     */
+    record Junction(String operator, List<HeaderPredicate> predicates) implements HeaderPredicate {
+
+        @Override
+        public String toSelector() {
+            return predicates.stream()
+                    .map(predicate -> "(" + predicate.toSelector() + ")")
+                    .collect(Collectors.joining(" " + operator + " "));
+        }
+
+        @Override
+        public boolean test(Map<String, Object> headers) {
+            return "AND".equals(operator)
+                    ? predicates.stream().allMatch(predicate -> predicate.test(headers))
+                    : predicates.stream().anyMatch(predicate -> predicate.test(headers));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.israiloff.broker.service;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Message selector syntax helpers of {@link HeaderPredicate}. Numbers are compared as decimals, so that headers of
+ * different numeric types are compared by value. Non-finite floating point header values are compared as doubles,
+ * i.e. {@code NaN} matches only {@code <>} comparisons, as it does in message selectors evaluated by the broker.
+ */
+final class HeaderSelectors {
+
+    private static final Set<String> RESERVED = Set.of("NULL", "TRUE", "FALSE", "NOT", "AND", "OR", "BETWEEN",
+            "LIKE", "IN", "IS", "ESCAPE");
+
+    private HeaderSelectors() {
+    }
+
+    /**
+     * Checks that header name is valid message selector identifier.
+     *
+     * @param name Header name.
+     * @throws IllegalArgumentException If header name can't be used in message selector.
+     */
+    static void checkIdentifier(String name) {
+        Objects.requireNonNull(name, "header name must not be null");
+        var valid = !name.isEmpty()
+                && Character.isJavaIdentifierStart(name.charAt(0))
+                && name.chars().allMatch(Character::isJavaIdentifierPart)
+                && !RESERVED.contains(name.toUpperCase());
+        if (!valid) {
+            throw new IllegalArgumentException("header name can't be used in message selector : " + name);
+        }
+    }
+
+    /**
+     * Checks that value can be used as message selector literal.
+     *
+     * @param value Literal value.
+     * @throws IllegalArgumentException If value is neither string, finite number nor boolean.
+     */
+    static void checkLiteral(Object value) {
+        if (!(value instanceof String || value instanceof Number || value instanceof Boolean)) {
+            throw new IllegalArgumentException("unsupported header value : " + value);
+        }
+
+        if (value instanceof Number number && !isFinite(number)) {
+            throw new IllegalArgumentException("non-finite number can't be used in message selector : " + value);
+        }
+    }
+
+    /**
+     * Formats value as message selector literal.
+     *
+     * @param value Literal value, checked by {@link #checkLiteral(Object)}.
+     * @return Literal expression.
+     */
+    static String literal(Object value) {
+        if (value instanceof String string) {
+            return "'" + string.replace("'", "''") + "'";
+        }
+
+        if (value instanceof Boolean bool) {
+            return bool ? "TRUE" : "FALSE";
+        }
+
+        return toDecimal((Number) value).toPlainString();
+    }
+
+    /**
+     * Compares header value with literal.
+     *
+     * @param actual   Header value. Can be null.
+     * @param operator Comparison operator ({@code =}, {@code <>}, {@code >} or {@code <}).
+     * @param expected Literal value, checked by {@link #checkLiteral(Object)}.
+     * @return True if header value matches the comparison. Missing header and values of incomparable types never
+     * match.
+     */
+    static boolean matches(Object actual, String operator, Object expected) {
+        if (actual == null || (actual instanceof Number ? !(expected instanceof Number)
+                : actual.getClass() != expected.getClass())) {
+            return false;
+        }
+
+        if (!(actual instanceof Number number)) {
+            return "=".equals(operator) == actual.equals(expected);
+        }
+
+        if (!isFinite(number)) {
+            var left = number.doubleValue();
+            var right = ((Number) expected).doubleValue();
+            return switch (operator) {
+                case "=" -> left == right;
+                case "<>" -> left != right;
+                case ">" -> left > right;
+                default -> left < right;
+            };
+        }
+
+        var result = toDecimal(number).compareTo(toDecimal((Number) expected));
+        return switch (operator) {
+            case "=" -> result == 0;
+            case "<>" -> result != 0;
+            case ">" -> result > 0;
+            default -> result < 0;
+        };
+    }
+
+    private static boolean isFinite(Number number) {
+        if (number instanceof Double value) {
+            return Double.isFinite(value);
+        }
+        return !(number instanceof Float value) || Float.isFinite(value);
+    }
+
+    private static BigDecimal toDecimal(Number number) {
+        return number instanceof BigDecimal decimal ? decimal : new BigDecimal(number.toString());
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.israiloff.broker.service;
+
+import java.util.Map;
+
+/**
+ * Message to publish.
+ *
+ * @param topic           Name of target topic.
+ * @param model           Object to publish.
+ * @param headers         Additional headers to publish. Can be null.
+ * @param <TRequestModel> Type of object to publish.
+ */
+public record OutgoingMessage<TRequestModel>(String topic, TRequestModel model, Map<String, Object> headers) {
+}
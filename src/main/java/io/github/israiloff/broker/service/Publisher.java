@@ -3,8 +3,12 @@ package io.github.israiloff.broker.service;
 import io.github.israiloff.rjvalidation.constraint.CmNotBlank;
 import io.github.israiloff.rjvalidation.constraint.CmNotNull;
 import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -14,7 +18,8 @@ import java.util.Map;
 public interface Publisher {
 
     /**
-     * Publishes specified message.
+     * Publishes specified message. Completes when the message is sent, or confirmed by the broker if asynchronous
+     * publishing is enabled.
      *
      * @param topic           Name of target topic.
      * @param model           Object to publish.
@@ -24,4 +29,94 @@ public interface Publisher {
      */
     <TRequestModel> Mono<Void> publish(@CmNotBlank String topic, @CmNotNull TRequestModel model,
                                        Map<String, Object> headers);
+
+    /**
+     * Publishes specified message with partition key. Messages of the same partition key are consumed in order of
+     * publishing, messages of different keys can be consumed in parallel (see {@link Subscriber#getLanes()}).
+     *
+     * @param topic           Name of target topic.
+     * @param model           Object to publish.
+     * @param headers         Additional headers to publish. Can be null.
+     * @param partitionKey    Partition key (e.g. identifier of entity). Published as {@code JMSXGroupID} header.
+     * @param <TRequestModel> Type of object to publish.
+     * @return End operation signal.
+     */
+    <TRequestModel> Mono<Void> publish(@CmNotBlank String topic, @CmNotNull TRequestModel model,
+                                       Map<String, Object> headers, @CmNotBlank String partitionKey);
+
+    /**
+     * Publishes all specified messages to the same topic. Messages are grouped into batches by size and time limits,
+     * and each batch is sent within single transaction.
+     *
+     * @param topic           Name of target topic.
+     * @param models          Objects to publish.
+     * @param headers         Additional headers to publish with each message. Can be null.
+     * @param <TRequestModel> Type of objects to publish.
+     * @return End operation signal.
+     */
+    <TRequestModel> Mono<Void> publishAll(@CmNotBlank String topic, @CmNotNull Flux<TRequestModel> models,
+                                          Map<String, Object> headers);
+
+    /**
+     * Publishes all specified messages. Messages are grouped into batches by size and time limits, and each batch is
+     * sent within single transaction.
+     *
+     * @param messages        Messages to publish.
+     * @param <TRequestModel> Type of objects to publish.
+     * @return End operation signal.
+     */
+    <TRequestModel> Mono<Void> publishAll(@CmNotNull Flux<OutgoingMessage<TRequestModel>> messages);
+
+    /**
+     * Publishes large binary message whose body is read from specified stream while sending, so that the whole
+     * content is never held in memory. The stream is not closed.
+     *
+     * @param topic   Name of target topic.
+     * @param content Content of message's body.
+     * @param headers Additional headers to publish. Can be null.
+     * @return End operation signal.
+     */
+    Mono<Void> publishStream(@CmNotBlank String topic, @CmNotNull InputStream content, Map<String, Object> headers);
+
+    /**
+     * Publishes large binary message whose body is requested from specified flux on demand while sending, so that
+     * the whole content is never held in memory.
+     *
+     * @param topic   Name of target topic.
+     * @param content Content of message's body.
+     * @param headers Additional headers to publish. Can be null.
+     * @return End operation signal.
+     */
+    Mono<Void> publishStream(@CmNotBlank String topic, @CmNotNull Flux<ByteBuffer> content,
+                             Map<String, Object> headers);
+
+    /**
+     * Sends specified request and awaits its reply. Replies to all requests of this instance are received through
+     * single shared reply queue and matched to requests by correlation identifier. Request is published with
+     * {@code JMSReplyTo} and {@code JMSCorrelationID} headers, which are passed to {@link #reply(Map, Object)} by the
+     * replying side.
+     *
+     * @param topic           Name of target topic.
+     * @param model           Object to send.
+     * @param headers         Additional headers to publish. Can be null.
+     * @param replyType       Type of reply's body.
+     * @param timeout         Maximum duration to wait for reply once the request is sent.
+     * @param <TRequestModel> Type of object to send.
+     * @param <TReplyModel>   Type of reply's body.
+     * @return Body of reply. Fails with {@link java.util.concurrent.TimeoutException} if there is no reply in time.
+     */
+    <TRequestModel, TReplyModel> Mono<TReplyModel> request(@CmNotBlank String topic, @CmNotNull TRequestModel model,
+                                                           Map<String, Object> headers,
+                                                           @CmNotNull Class<TReplyModel> replyType,
+                                                           @CmNotNull Duration timeout);
+
+    /**
+     * Sends reply to request received by subscriber. Does nothing if the request doesn't expect reply.
+     *
+     * @param requestHeaders Headers of received request.
+     * @param model          Body of reply.
+     * @param <TReplyModel>  Type of reply's body.
+     * @return End operation signal.
+     */
+    <TReplyModel> Mono<Void> reply(@CmNotNull Map<String, Object> requestHeaders, @CmNotNull TReplyModel model);
 }
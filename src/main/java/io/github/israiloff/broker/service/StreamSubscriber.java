@@ -0,0 +1,61 @@
+package io.github.israiloff.broker.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Subscriber of large binary messages. Receives body of message as stream of chunks, so that heap usage doesn't
+ * depend on size of the message.
+ */
+public interface StreamSubscriber {
+
+    /**
+     * Gets name of subscribed topic.
+     *
+     * @return Topic name.
+     */
+    String getTopic();
+
+    /**
+     * Incoming message handler. Body must be consumed (or cancelled) by the handler, since the message is received
+     * as fast as the body is consumed.
+     *
+     * @param body    Backpressured body of message.
+     * @param headers Headers of message.
+     * @return End operation signal.
+     */
+    Mono<Void> handle(Flux<ByteBuffer> body, Map<String, Object> headers);
+
+    /**
+     * Gets name of the shared subscription of subscriber (see {@link Subscriber#getSubscriptionName()}).
+     *
+     * @return Subscription name. Null means that subscription is not shared unless {@code consumer.shared} property
+     * is set.
+     */
+    default String getSubscriptionName() {
+        return null;
+    }
+
+    /**
+     * Gets count of concurrent consumers (sessions) of subscriber, each receiving and handling its own messages. Takes
+     * effect for queues and shared subscriptions only.
+     *
+     * @return Count of consumers. Non-positive value means that the default one (i.e. {@code consumer.concurrency}
+     * property) is used.
+     */
+    default int getConcurrency() {
+        return 0;
+    }
+
+    /**
+     * Gets filter of incoming messages (see {@link Subscriber#getFilter()}).
+     *
+     * @return Predicate over headers. Null means that all messages of the topic are handled.
+     */
+    default HeaderPredicate getFilter() {
+        return null;
+    }
+}
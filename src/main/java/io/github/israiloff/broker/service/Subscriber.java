@@ -1,6 +1,7 @@
 package io.github.israiloff.broker.service;
 
 import io.github.israiloff.broker.model.Message;
+import org.springframework.util.unit.DataSize;
 import reactor.core.publisher.Mono;
 
 /**
@@ -32,5 +33,73 @@ public interface Subscriber<TRequestModel> {
      * @return End operation signal.
      */
     Mono<Void> handle(Message<TRequestModel> message);
-}
 
+    /**
+     * Gets maximum count of concurrently processing messages of subscriber. Takes effect in
+     * {@code ON_COMPLETION} consumption mode for queues and shared subscriptions only, since messages of non shared
+     * topic subscription are handled one at a time (a warning is logged if greater value is specified).
+     *
+     * @return Maximum count of concurrently processing messages. Non-positive value means that the default one
+     * (i.e. {@code consumer.maxInFlight} property) is used.
+     */
+    default int getMaxInFlight() {
+        return 0;
+    }
+
+    /**
+     * Gets name of shared subscription of subscriber. All application instances using the same subscription name
+     * share messages of the topic, i.e. each message is consumed by one of them only, while subscribers having
+     * different subscription names (e.g. of other services) receive all messages. Takes effect for
+     * {@code TOPIC} exchange type only.
+     *
+     * @return Subscription name. Null means that subscription is not shared unless {@code consumer.shared} property
+     * is set, in which case the name is derived from the application name and subscriber's class.
+     */
+    default String getSubscriptionName() {
+        return null;
+    }
+
+    /**
+     * Gets count of ordered handling lanes of subscriber. Messages having the same partition key (i.e.
+     * {@code JMSXGroupID} header) are handled sequentially in order of arrival, messages of different keys are handled
+     * in parallel.
+     *
+     * @return Count of lanes. Non-positive value means that messages are handled without ordering guarantees.
+     */
+    default int getLanes() {
+        return 0;
+    }
+
+    /**
+     * Gets count of concurrent consumers (sessions) of subscriber. Takes effect for queues and shared subscriptions
+     * only.
+     *
+     * @return Count of consumers. Non-positive value means that the default one (i.e. {@code consumer.concurrency}
+     * property) is used.
+     */
+    default int getConcurrency() {
+        return 0;
+    }
+
+    /**
+     * Gets filter of incoming messages by their headers. Filter is compiled into JMS message selector, so that
+     * filtered messages are not delivered to the application at all.
+     *
+     * @return Predicate over headers. Null means that all messages of the topic are handled.
+     */
+    default HeaderPredicate getFilter() {
+        return null;
+    }
+
+    /**
+     * Gets size of consumer window of subscriber, i.e. of messages buffered by each consumer in advance. Small window
+     * prevents slow subscriber from hoarding messages in memory, large one increases throughput of fast subscriber.
+     * If several subscribers share the same container, the largest window is used.
+     *
+     * @return Window size. Null means that the default one (i.e. {@code consumer.windowSize} property) is used, or
+     * the window is adaptive if {@code consumer.adaptiveWindow.enabled} property is set.
+     */
+    default DataSize getWindowSize() {
+        return null;
+    }
+}
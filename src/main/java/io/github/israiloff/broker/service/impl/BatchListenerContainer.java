@@ -0,0 +1,107 @@
+package io.github.israiloff.broker.service.impl;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import lombok.AccessLevel;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Listener container receiving messages in batches. Built on {@link DefaultMessageListenerContainer}, which manages
+ * consumers' threads, shared connection, cached transacted sessions and consumers, and recovery after failure of the
+ * connection (see {@link #setReceiveTimeout(long)} and {@link #setRecoveryInterval(long)}). Each consumer receives
+ * messages until the batch is full or its timeout elapses, passes the batch to the listener and commits the session.
+ * If the listener fails, the session is rolled back, so that the whole batch is redelivered. Sessions and consumers are
+ * always cached, external transaction manager isn't supported.
+ */
+@Slf4j
+@Setter
+public class BatchListenerContainer extends DefaultMessageListenerContainer {
+
+    private int batchSize;
+    private Duration batchTimeout;
+    private Consumer<List<jakarta.jms.Message>> batchListener;
+    @Setter(AccessLevel.NONE)
+    private boolean initialized;
+
+    /**
+     * Constructor.
+     */
+    public BatchListenerContainer() {
+        setSessionTransacted(true);
+        setCacheLevel(CACHE_CONSUMER);
+    }
+
+    /**
+     * Schedules consumers once, even if the container is initialized again (e.g. when registered as a bean after it is
+     * configured).
+     *
+     * @throws JMSException If consumers can't be scheduled.
+     */
+    @Override
+    protected void doInitialize() throws JMSException {
+        synchronized (lifecycleMonitor) {
+            if (initialized) {
+                return;
+            }
+            initialized = true;
+        }
+        super.doInitialize();
+    }
+
+    /**
+     * Receives batch of messages and passes it to the listener within the transaction of the session.
+     *
+     * @param invoker  Invoker of the listener.
+     * @param session  Cached session of the consumer.
+     * @param consumer Cached consumer.
+     * @param status   Status of external transaction. Not supported, always null.
+     * @return True if any message is received.
+     * @throws JMSException If receiving or transaction completion fails.
+     */
+    @Override
+    protected boolean doReceiveAndExecute(Object invoker, Session session, MessageConsumer consumer,
+                                          TransactionStatus status) throws JMSException {
+        Assert.state(session != null && consumer != null, "batch listener container requires cached consumers");
+        var first = receiveMessage(consumer);
+        if (first == null) {
+            noMessageReceived(invoker, session);
+            if (shouldCommitAfterNoMessageReceived(session)) {
+                commitIfNecessary(session, null);
+            }
+            return false;
+        }
+
+        messageReceived(invoker, session);
+        var batch = new ArrayList<jakarta.jms.Message>(batchSize);
+        batch.add(first);
+        var deadline = System.nanoTime() + batchTimeout.toNanos();
+        while (batch.size() < batchSize) {
+            var remaining = (deadline - System.nanoTime()) / 1_000_000;
+            var message = remaining > 0 ? consumer.receive(remaining) : consumer.receiveNoWait();
+            if (message == null) {
+                break;
+            }
+            batch.add(message);
+        }
+
+        try {
+            batchListener.accept(batch);
+        } catch (RuntimeException e) {
+            log.error("error occurred while processing batch of jms messages, rolling back", e);
+            rollbackOnExceptionIfNecessary(session, e);
+            return true;
+        }
+        commitIfNecessary(session, batch.get(batch.size() - 1));
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.metrics.BrokerMetrics;
+import io.github.israiloff.broker.model.Message;
+import io.github.israiloff.broker.service.BatchSubscriber;
+import io.github.israiloff.broker.util.DeduplicationUtil;
+import io.github.israiloff.broker.util.ListenerUtil;
+import jakarta.jms.JMSException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of messages consumed by {@link BatchSubscriber}s. Batch is handled on the consumer's thread, which is
+ * blocked until the handler completes, so that the batch is committed only after successful handling. Messages which
+ * can't be decoded are isolated: they are logged, counted as handler's errors and dropped together with the batch's
+ * commit, so that a single poison message doesn't make the whole batch redelivered forever.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class BatchMessageListener {
+
+    private final ListenerUtil listenerUtil;
+    private final BrokerMetrics metrics;
+    private final DeduplicationUtil deduplicationUtil;
+
+    /**
+     * Handler of incoming batches. Already processed and undecodable messages are skipped.
+     *
+     * @param messages     Incoming messages.
+     * @param subscription Name of the subscription.
+     * @param subscriber   Target subscriber.
+     */
+    public void onMessages(List<jakarta.jms.Message> messages, String subscription, BatchSubscriber subscriber) {
+        log.debug("onMessages started for topic : {}, messages : {}", subscriber.getTopic(), messages.size());
+        var meters = metrics.handler(subscriber, subscriber.getTopic());
+        var batch = new ArrayList<Message>(messages.size());
+        var ids = new long[messages.size()];
+        for (var message : messages) {
+            var id = deduplicationUtil.getId(message, subscription);
+            if (deduplicationUtil.isProcessed(id)) {
+                log.debug("message is skipped as already processed");
+                continue;
+            }
+
+            try {
+                var data = listenerUtil.extract(message, subscription);
+                var start = System.nanoTime();
+                var result = (Serializable) data.decode(subscriber.getMsgClass());
+                metrics.consumer(subscription).deserialization()
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                ids[batch.size()] = id;
+                batch.add(new Message(result, data.headers()));
+            } catch (Throwable e) {
+                meters.errors().increment();
+                log.error("message {} of topic {} can't be decoded and is dropped from the batch",
+                        getMessageId(message), subscriber.getTopic(), e);
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        var start = System.nanoTime();
+        meters.inFlight().addAndGet(batch.size());
+        try {
+            subscriber.handle(batch).block();
+        } catch (RuntimeException e) {
+            meters.errors().increment();
+            throw e;
+        } finally {
+            meters.inFlight().addAndGet(-batch.size());
+            meters.recordHandling(start, batch.size());
+        }
+
+        for (var index = 0; index < batch.size(); index++) {
+            deduplicationUtil.markProcessed(ids[index]);
+        }
+    }
+
+    private String getMessageId(jakarta.jms.Message message) {
+        try {
+            return message.getJMSMessageID();
+        } catch (JMSException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.config.JmsProperties;
+import io.github.israiloff.broker.config.RejectionPolicy;
+import io.github.israiloff.broker.model.Message;
+import io.github.israiloff.broker.service.Subscriber;
+import io.github.israiloff.broker.util.PublisherUtil;
+import io.github.israiloff.broker.util.SchedulerUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Dispatcher of messages to per partition key lanes of subscribers. Messages having the same partition key
+ * ({@link PublisherUtil#PARTITION_KEY_HEADER}) are handled sequentially in order of arrival, messages of different
+ * keys are handled in parallel. Messages without partition key and messages of subscribers having no lanes are
+ * handled directly. Lanes of each subscriber are executed on its own bounded scheduler and each lane holds bounded
+ * count of handlings ({@code consumer.lanes} properties).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@SuppressWarnings("rawtypes")
+public class LaneDispatcher implements DisposableBean {
+
+    private final SubscriberInvoker invoker;
+    private final SchedulerUtil schedulerUtil;
+    private final JmsProperties properties;
+    private final Map<Subscriber, Lane[]> lanes = new ConcurrentHashMap<>();
+    private final Map<Subscriber, Scheduler> schedulers = new ConcurrentHashMap<>();
+
+    /**
+     * Invokes handler of specified subscriber within the lane of message's partition key.
+     *
+     * @param subscriber Target subscriber.
+     * @param message    Message to handle.
+     * @return End operation signal. Completes after the message is handled. Fails with
+     * {@link RejectedExecutionException} if the lane is full and {@link RejectionPolicy#ABORT} policy is configured.
+     */
+    public Mono<Void> invoke(Subscriber subscriber, Message message) {
+        var count = subscriber.getLanes();
+        var key = count > 0 ? message.headers().get(PublisherUtil.PARTITION_KEY_HEADER) : null;
+        if (key == null) {
+            return invoker.invoke(subscriber, message);
+        }
+
+        var lane = lanes.computeIfAbsent(subscriber, ignored -> createLanes(subscriber, count))
+                [Math.floorMod(key.hashCode(), count)];
+        return Mono.create(sink -> lane.submit(invoker.invoke(subscriber, message)
+                .doOnSuccess(ignored -> sink.success())
+                .doOnError(sink::error)
+                .onErrorResume(e -> Mono.empty())));
+    }
+
+    /**
+     * Stops all lanes and disposes their schedulers.
+     */
+    @Override
+    public void destroy() {
+        lanes.values().stream().flatMap(Arrays::stream).forEach(Lane::dispose);
+        schedulers.values().forEach(Scheduler::dispose);
+    }
+
+    private Lane[] createLanes(Subscriber subscriber, int count) {
+        log.debug("createLanes started for topic : {}, lanes : {}", subscriber.getTopic(), count);
+        var laneProperties = properties.consumer().lanes();
+        // each lane runs one handling at a time, so scheduler having thread per lane is never saturated
+        var scheduler = schedulers.computeIfAbsent(subscriber, key -> schedulerUtil.newScheduler(
+                "broker-lanes-" + subscriber.getTopic() + "-" + ClassUtils.getUserClass(subscriber).getSimpleName(),
+                count, count, laneProperties.virtualThreads(), RejectionPolicy.ABORT));
+        var result = new Lane[count];
+        Arrays.setAll(result, index -> new Lane(scheduler, laneProperties.queueCapacity(), laneProperties.rejection()));
+        return result;
+    }
+
+    /**
+     * Bounded sequential queue of handlings.
+     */
+    private static class Lane {
+
+        private final Sinks.Many<Mono<Void>> tasks = Sinks.many().unicast().onBackpressureBuffer();
+        private final Semaphore permits;
+        private final RejectionPolicy rejection;
+        private final Disposable worker;
+
+        private Lane(Scheduler scheduler, int capacity, RejectionPolicy rejection) {
+            this.permits = new Semaphore(capacity);
+            this.rejection = rejection;
+            this.worker = tasks.asFlux()
+                    .concatMap(task -> task.subscribeOn(scheduler))
+                    .subscribe();
+        }
+
+        @SneakyThrows
+        private void submit(Mono<Void> task) {
+            if (rejection == RejectionPolicy.CALLER_RUNS) {
+                permits.acquire();
+            } else if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("lane is full");
+            }
+
+            synchronized (this) {
+                tasks.tryEmitNext(task.doFinally(signal -> permits.release())).orThrow();
+            }
+        }
+
+        private void dispose() {
+            worker.dispose();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.config.JmsProperties;
+import io.github.israiloff.broker.config.LocalDelivery;
+import io.github.israiloff.broker.model.Message;
+import io.github.israiloff.broker.service.BatchSubscriber;
+import io.github.israiloff.broker.service.Subscriber;
+import io.github.israiloff.broker.util.SchedulerUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Dispatcher of messages published to topics having in-process subscribers. Published objects are handed to the
+ * subscribers as is, without serialization and round trip through the broker. Note that the same instance of the
+ * model is shared between all matching subscribers. Messages forwarded to the broker after local dispatch are marked
+ * with keys of subscriptions which have already handled them: consumers sharing subscription (shared subscriptions and
+ * queues, including ones of other instances of the application) skip them, while own subscriptions of other instances
+ * and other applications handle them. In {@link LocalDelivery#FIRE_AND_FORGET} mode messages are dispatched on the
+ * dispatcher's own bounded scheduler.
+ */
+@Slf4j
+@Component
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class LocalDispatcher implements DisposableBean {
+
+    /**
+     * Name of the header containing comma separated keys of subscriptions which have already handled the message
+     * locally.
+     */
+    public static final String LOCAL_ORIGIN_HEADER = "localOrigin";
+
+    private static final String KEY_DELIMITER = ",";
+
+    private final ObjectProvider<SubscriberRegistry> registry;
+    private final ObjectProvider<BatchSubscriber> batchSubscribers;
+    private final Map<String, Boolean> batchRoutes = new ConcurrentHashMap<>();
+    private final Map<String, String> subscriptionKeys = new ConcurrentHashMap<>();
+    private final Map<Subscriber, String> subscriberKeys = new ConcurrentHashMap<>();
+    private final LaneDispatcher laneDispatcher;
+    private final JmsProperties properties;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Scheduler scheduler;
+
+    /**
+     * Constructor.
+     *
+     * @param registry         Provider of routing index of the all registered subscribers. Resolved lazily, so that
+     *                         subscribers are able to depend on publisher.
+     * @param batchSubscribers Provider of subscribers handling messages in batches.
+     * @param laneDispatcher   Dispatcher of messages to subscribers' lanes.
+     * @param properties       JMS properties.
+     * @param schedulerUtil    Utilities for creation of schedulers.
+     */
+    public LocalDispatcher(ObjectProvider<SubscriberRegistry> registry,
+                           ObjectProvider<BatchSubscriber> batchSubscribers, LaneDispatcher laneDispatcher,
+                           JmsProperties properties, SchedulerUtil schedulerUtil) {
+        this.registry = registry;
+        this.batchSubscribers = batchSubscribers;
+        this.laneDispatcher = laneDispatcher;
+        this.properties = properties;
+        var local = properties.local();
+        this.scheduler = local.enabled() && local.delivery() == LocalDelivery.FIRE_AND_FORGET
+                ? schedulerUtil.newScheduler("broker-local", local.threads(), local.queueCapacity(), false,
+                        local.rejection())
+                : null;
+        if (properties.local().enabled() && !properties.local().forward()) {
+            log.warn("local dispatch is enabled without forwarding, messages published to topics having in-process "
+                    + "subscribers are not delivered to other applications and other instances of the application");
+        }
+    }
+
+    /**
+     * Registers subscription consuming messages from the broker, so that messages already dispatched locally to its
+     * subscribers are skipped.
+     *
+     * @param subscription Name of the subscription.
+     * @param shared       Whether messages of the subscription are shared between its consumers (i.e. shared
+     *                     subscription or queue), including consumers of other instances of the application.
+     * @param subscribers  Subscribers of the subscription.
+     */
+    public void register(String subscription, boolean shared, Collection<Subscriber> subscribers) {
+        var key = shared ? subscription : instanceId + ":" + subscription;
+        subscriptionKeys.put(subscription, key);
+        subscribers.forEach(subscriber -> subscriberKeys.put(subscriber, key));
+    }
+
+    /**
+     * Checks whether specified model can be dispatched locally, i.e. local dispatch is enabled, topic has in-process
+     * subscribers, all of them accept type of the model and there is no {@link BatchSubscriber} of the topic (they
+     * receive messages from the broker only).
+     *
+     * @param topic Name of target topic.
+     * @param model Object to publish.
+     * @return True if model can be dispatched locally.
+     */
+    public boolean canDispatch(String topic, Object model) {
+        if (!properties.local().enabled() || model == null) {
+            return false;
+        }
+
+        var subscribers = registry.getObject().route(topic);
+        return !subscribers.isEmpty()
+                && subscribers.stream().allMatch(subscriber -> subscriber.getMsgClass().isInstance(model))
+                && !batchRoutes.computeIfAbsent(topic, key -> batchSubscribers.stream()
+                        .anyMatch(subscriber -> SubscriberRegistry.covers(subscriber.getTopic(), key)));
+    }
+
+    /**
+     * Dispatches specified model to the all in-process subscribers of the topic with configured delivery semantics.
+     *
+     * @param topic   Name of target topic.
+     * @param model   Object to dispatch.
+     * @param headers Additional headers. Can be null.
+     * @return End operation signal.
+     */
+    public Mono<Void> dispatch(String topic, Object model, Map<String, Object> headers) {
+        log.debug("dispatch started for topic : {}", topic);
+        var messageHeaders = headers == null ? Map.<String, Object>of() : Collections.unmodifiableMap(headers);
+        var message = new Message(model, messageHeaders);
+        var dispatching = Flux.fromIterable(registry.getObject().route(topic))
+                .filter(subscriber -> subscriber.getFilter() == null || subscriber.getFilter().test(messageHeaders))
+                .flatMap(subscriber -> laneDispatcher.invoke((Subscriber) subscriber, message))
+                .then();
+
+        if (properties.local().delivery() == LocalDelivery.FIRE_AND_FORGET) {
+            return Mono.fromRunnable(() -> dispatching
+                    .subscribeOn(scheduler)
+                    .subscribe(null, e -> log.error("error occurred while dispatching message locally", e)));
+        }
+        return dispatching;
+    }
+
+    /**
+     * Disposes the dispatching scheduler.
+     */
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    /**
+     * Marks headers of the message forwarded to the broker after local dispatch with keys of subscriptions of the
+     * subscribers the message is dispatched to.
+     *
+     * @param topic   Name of target topic.
+     * @param headers Additional headers. Can be null.
+     * @return Copy of headers containing {@link #LOCAL_ORIGIN_HEADER}.
+     */
+    public Map<String, Object> mark(String topic, Map<String, Object> headers) {
+        var result = headers == null ? new HashMap<String, Object>() : new HashMap<>(headers);
+        var messageHeaders = Collections.unmodifiableMap(result);
+        var keys = registry.getObject().route(topic).stream()
+                .filter(subscriber -> subscriber.getFilter() == null || subscriber.getFilter().test(messageHeaders))
+                .map(subscriberKeys::get)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.joining(KEY_DELIMITER));
+        result.put(LOCAL_ORIGIN_HEADER, keys);
+        return result;
+    }
+
+    /**
+     * Checks whether incoming message has already been dispatched locally to the subscribers of the subscription.
+     *
+     * @param headers      Headers of incoming message.
+     * @param subscription Name of the subscription receiving the message.
+     * @return True if message has already been handled.
+     */
+    public boolean isDispatched(Map<String, Object> headers, String subscription) {
+        if (!properties.local().forward() || !(headers.get(LOCAL_ORIGIN_HEADER) instanceof String keys)) {
+            return false;
+        }
+
+        var key = subscriptionKeys.get(subscription);
+        return key != null && Arrays.asList(keys.split(KEY_DELIMITER)).contains(key);
+    }
+}
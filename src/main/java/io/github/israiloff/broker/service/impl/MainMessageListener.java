@@ -1,73 +1,98 @@
 package io.github.israiloff.broker.service.impl;
 
+import io.github.israiloff.broker.config.ConsumptionMode;
+import io.github.israiloff.broker.config.JmsProperties;
+import io.github.israiloff.broker.metrics.BrokerMetrics;
 import io.github.israiloff.broker.service.Subscriber;
+import io.github.israiloff.broker.util.DeduplicationUtil;
 import io.github.israiloff.broker.util.ListenerUtil;
-import jakarta.jms.MessageListener;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple3;
 import reactor.util.function.Tuples;
 import io.github.israiloff.broker.error.JmsMessageDeserializationException;
 import io.github.israiloff.broker.model.Message;
-import io.github.israiloff.broker.model.RequestData;
-import io.github.israiloff.serializer.service.SneakySerializer;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Entry point of all incoming messages. Used as resolver of subscribed topics.
+ * Entry point of incoming messages of subscriptions' listener containers. Used as resolver of subscribed topics.
  */
 @Slf4j
 @Component
 @SuppressWarnings({"unchecked", "rawtypes"})
-public class MainMessageListener implements MessageListener {
+public class MainMessageListener {
 
-    private final Flux<Subscriber> subscribers;
-    private final SneakySerializer serializer;
+    private final SubscriberRegistry registry;
     private final ListenerUtil listenerUtil;
+    private final JmsProperties properties;
+    private final BrokerMetrics metrics;
+    private final LaneDispatcher laneDispatcher;
+    private final LocalDispatcher localDispatcher;
+    private final DeduplicationUtil deduplicationUtil;
 
     /**
      * Constructor.
      *
-     * @param subscribers  Collection of the all registered subscribers.
-     * @param serializer   Object serializer.
-     * @param listenerUtil Main utils.
+     * @param registry          Routing index of the all registered subscribers.
+     * @param listenerUtil      Main utils.
+     * @param properties        JMS properties.
+     * @param metrics           Instrumentation of consumption.
+     * @param laneDispatcher    Dispatcher of messages to subscribers' lanes.
+     * @param localDispatcher   Dispatcher of in-process published messages.
+     * @param deduplicationUtil Deduplication utils.
      */
     @SneakyThrows
-    public MainMessageListener(List<Subscriber> subscribers, SneakySerializer serializer, ListenerUtil listenerUtil) {
-        this.serializer = serializer;
-        this.subscribers = Flux.fromIterable(subscribers);
+    public MainMessageListener(SubscriberRegistry registry, ListenerUtil listenerUtil, JmsProperties properties,
+                               BrokerMetrics metrics, LaneDispatcher laneDispatcher, LocalDispatcher localDispatcher,
+                               DeduplicationUtil deduplicationUtil) {
+        this.registry = registry;
         this.listenerUtil = listenerUtil;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.laneDispatcher = laneDispatcher;
+        this.localDispatcher = localDispatcher;
+        this.deduplicationUtil = deduplicationUtil;
     }
 
     /**
-     * Handler of incoming messages.
+     * Handler of incoming messages of a subscription. In {@link ConsumptionMode#ON_COMPLETION} mode blocks the
+     * listener's thread until the message is handled, so that the message is committed only after successful
+     * handling and rolled back otherwise.
      *
-     * @param message The message passed to the listener
+     * @param message      The message passed to the listener
+     * @param subscription Name of the subscription.
+     * @param subscribers  Subscribers of the subscription. Message is dispatched to the ones matching its topic only.
      */
     @SneakyThrows
-    @Override
-    public void onMessage(jakarta.jms.Message message) {
+    public void onMessage(jakarta.jms.Message message, String subscription, Collection<Subscriber> subscribers) {
         log.debug("onMessage started");
 
-        listenerUtil.getTopicName(message)
-                .zipWith(listenerUtil.getJsonBody(message))
-                .zipWith(listenerUtil.getHeaders(message))
-                .map(objects -> new RequestData(objects.getT1().getT1(), objects.getT1().getT2(), objects.getT2()))
-                .flatMap(data ->
-                        subscribers
-                                .filter(subscriber -> Objects.equals(subscriber.getTopic(), data.topic()))
-                                .last()
+        var messageId = deduplicationUtil.getId(message, subscription);
+        if (deduplicationUtil.isProcessed(messageId)) {
+            log.debug("message is skipped as already processed");
+            return;
+        }
+
+        var processing = Mono.fromCallable(() -> listenerUtil.extract(message, subscription))
+                .filter(data -> !localDispatcher.isDispatched(data.headers(), subscription))
+                .flatMapMany(data ->
+                        Flux.fromIterable(getSubscribers(data.topic(), subscribers))
+                                .filter(subscriber -> accepts(subscriber, data.headers()))
                                 .<Tuple3<Subscriber, Serializable, Map<String, Object>>>handle(
                                         (subscriber, sink) -> {
                                             try {
-                                                var result = (Serializable) serializer
-                                                        .deserialize(data.jsonBody(), subscriber.getMsgClass());
+                                                var start = System.nanoTime();
+                                                var result = (Serializable) data.decode(subscriber.getMsgClass());
+                                                metrics.consumer(subscription).deserialization()
+                                                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                                                 sink.next(Tuples.of(subscriber, result, data.headers()));
 
                                             } catch (Throwable e) {
@@ -75,8 +100,32 @@ public class MainMessageListener implements MessageListener {
                                             }
                                         })
                 )
-                .<Void>flatMap(tuple3 -> tuple3.getT1().handle(new Message(tuple3.getT2(), tuple3.getT3())))
-                .doOnError(e -> log.error("error occurred while processing jms message", e))
-                .subscribe();
+                .<Void>flatMap(tuple3 ->
+                        laneDispatcher.invoke(tuple3.getT1(), new Message(tuple3.getT2(), tuple3.getT3())))
+                .then()
+                .doOnSuccess(ignored -> deduplicationUtil.markProcessed(messageId))
+                .doOnError(e -> log.error("error occurred while processing jms message", e));
+
+        if (properties.consumer().mode() == ConsumptionMode.ON_COMPLETION) {
+            processing.block();
+        } else {
+            processing.subscribe();
+        }
+    }
+
+    private List<Subscriber> getSubscribers(String topic, Collection<Subscriber> subscribers) {
+        var result = registry.route(topic);
+        if (!subscribers.containsAll(result)) {
+            result = result.stream().filter(subscribers::contains).toList();
+        }
+        if (result.isEmpty()) {
+            log.warn("no subscriber found for topic : {}", topic);
+        }
+        return result;
+    }
+
+    private boolean accepts(Subscriber subscriber, Map<String, Object> headers) {
+        var filter = subscriber.getFilter();
+        return filter == null || filter.test(headers);
     }
 }
@@ -0,0 +1,212 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.config.JmsProperties;
+import io.github.israiloff.broker.config.RejectionPolicy;
+import io.github.israiloff.broker.config.JmsSubPubConfig;
+import io.github.israiloff.broker.util.DeduplicationUtil;
+import io.github.israiloff.broker.util.OutboxEntry;
+import io.github.israiloff.broker.util.OutboxLog;
+import io.github.israiloff.broker.util.PublisherUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.MessageFormatException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Local store-and-forward outbox. Published messages are appended to the local {@link OutboxLog} and forwarded to the
+ * broker by background thread in order, batch by batch, each batch within single transaction. Checkpoint of the log is
+ * moved once the batch is committed. Messages are stamped with duplicate detection identifier derived from their
+ * position in the log (unless stamped by the publisher), so that the batch forwarded again after crash is dropped by
+ * the broker. Size of the log is bounded, messages published once it is full are handled by configured
+ * {@link RejectionPolicy}. Failures of the broker or connection are retried, while the batch failed for other reasons
+ * (e.g. corrupted entry or message which can't be built) is forwarded entry by entry, so that entries which can't be
+ * forwarded are logged and skipped instead of blocking the rest of the outbox.
+ */
+@Slf4j
+@Component
+public class Outbox implements InitializingBean, DisposableBean {
+
+    private final JmsTemplate transactedJmsTemplate;
+    private final PublisherUtil publisherUtil;
+    private final JmsProperties properties;
+    private final Object signal = new Object();
+    private OutboxLog outboxLog;
+    private Thread forwarder;
+    private volatile boolean running;
+    private volatile boolean idle;
+
+    /**
+     * Constructor.
+     *
+     * @param transactedJmsTemplate JMS template working with transacted sessions.
+     * @param publisherUtil         Publisher utilities.
+     * @param properties            JMS properties.
+     */
+    public Outbox(@Qualifier(JmsSubPubConfig.TRANSACTED_JMS_TEMPLATE) JmsTemplate transactedJmsTemplate,
+                  PublisherUtil publisherUtil, JmsProperties properties) {
+        this.transactedJmsTemplate = transactedJmsTemplate;
+        this.publisherUtil = publisherUtil;
+        this.properties = properties;
+    }
+
+    /**
+     * Opens the outbox log and starts forwarding, if the outbox is enabled.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        var outbox = properties.outbox();
+        if (!outbox.enabled()) {
+            return;
+        }
+
+        log.debug("outbox started in directory : {}", outbox.directory());
+        outboxLog = new OutboxLog(Path.of(outbox.directory()), Math.toIntExact(outbox.segmentSize().toBytes()),
+                outbox.maxSize().toBytes(), outbox.force());
+        running = true;
+        forwarder = new Thread(this::forward, "broker-outbox");
+        forwarder.setDaemon(true);
+        forwarder.start();
+    }
+
+    /**
+     * Checks whether the outbox is enabled.
+     *
+     * @return True if published messages are stored in the outbox.
+     */
+    public boolean isEnabled() {
+        return outboxLog != null;
+    }
+
+    /**
+     * Appends message to the outbox.
+     *
+     * @param topic   Name of target topic.
+     * @param model   Object to publish.
+     * @param headers Additional headers to publish. Can be null.
+     * @return False if the outbox is full and the message should be sent directly ({@link RejectionPolicy#CALLER_RUNS}
+     * policy).
+     * @throws RejectedExecutionException If the outbox is full and {@link RejectionPolicy#ABORT} policy is configured.
+     */
+    public boolean append(String topic, Object model, Map<String, Object> headers) {
+        if (!outboxLog.append(new OutboxEntry(topic, publisherUtil.encode(topic, model), headers).toBytes())) {
+            if (properties.outbox().rejection() == RejectionPolicy.ABORT) {
+                throw new RejectedExecutionException("outbox is full, message to topic " + topic + " is rejected");
+            }
+            log.debug("outbox is full, message is sent directly to topic : {}", topic);
+            return false;
+        }
+
+        if (idle) {
+            synchronized (signal) {
+                signal.notifyAll();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops forwarding. Not yet forwarded messages are forwarded after restart.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (outboxLog == null) {
+            return;
+        }
+
+        running = false;
+        forwarder.interrupt();
+        forwarder.join();
+        outboxLog.close();
+    }
+
+    private void forward() {
+        var outbox = properties.outbox();
+        while (running) {
+            try {
+                var entries = outboxLog.read(outbox.batchSize());
+                if (entries.isEmpty()) {
+                    await(outbox.drainInterval().toMillis());
+                    continue;
+                }
+
+                try {
+                    send(entries);
+                } catch (RuntimeException e) {
+                    if (isRetryable(e)) {
+                        throw e;
+                    }
+                    sendEach(entries);
+                }
+                outboxLog.commit(entries.get(entries.size() - 1));
+            } catch (RuntimeException e) {
+                if (running) {
+                    log.warn("error occurred while forwarding outbox, retrying in {}", outbox.retryInterval(), e);
+                    await(outbox.retryInterval().toMillis());
+                }
+            }
+        }
+    }
+
+    private void await(long millis) {
+        synchronized (signal) {
+            idle = true;
+            try {
+                signal.wait(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                idle = false;
+            }
+        }
+    }
+
+    private void send(List<OutboxLog.Entry> entries) {
+        log.debug("send started for outbox entries : {}", entries.size());
+        var messages = entries.stream().map(this::toMessage).toList();
+        publisherUtil.sendInTransaction(transactedJmsTemplate, messages, OutboxEntry::topic,
+                (session, message) -> publisherUtil.createMessage(
+                        session, message.topic(), message.payload(), message.headers()));
+    }
+
+    private void sendEach(List<OutboxLog.Entry> entries) {
+        log.debug("sendEach started for outbox entries : {}", entries.size());
+        for (var entry : entries) {
+            try {
+                send(List.of(entry));
+            } catch (RuntimeException e) {
+                if (isRetryable(e)) {
+                    throw e;
+                }
+                log.error("outbox entry {} can't be forwarded, skipping it", entry.id(), e);
+            }
+            outboxLog.commit(entry);
+        }
+    }
+
+    private OutboxEntry toMessage(OutboxLog.Entry entry) {
+        var message = OutboxEntry.fromBytes(entry.data());
+        var headers = message.headers() == null
+                ? new HashMap<String, Object>()
+                : new HashMap<>(message.headers());
+        headers.putIfAbsent(DeduplicationUtil.DUPLICATE_ID_HEADER, entry.id());
+        return new OutboxEntry(message.topic(), message.payload(), headers);
+    }
+
+    private boolean isRetryable(RuntimeException e) {
+        return e instanceof JmsException
+                && !(e instanceof MessageFormatException)
+                && !(e instanceof MessageConversionException);
+    }
+}
@@ -1,20 +1,38 @@
 package io.github.israiloff.broker.service.impl;
 
+import io.github.israiloff.broker.config.JmsProperties;
 import io.github.israiloff.broker.config.JmsSubPubConfig;
+import io.github.israiloff.broker.metrics.BrokerMetrics;
+import io.github.israiloff.broker.service.OutgoingMessage;
 import io.github.israiloff.broker.service.Publisher;
+import io.github.israiloff.broker.util.ByteBufferInputStream;
+import io.github.israiloff.broker.util.DeduplicationUtil;
 import io.github.israiloff.broker.util.PublisherUtil;
+import jakarta.jms.CompletionListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.api.jms.ActiveMQJMSClient;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
 
 /**
- * Implementation of message publisher contract.
+ * Implementation of message publisher contract. If configured, headers of each published message are stamped with
+ * duplicate detection identifier when the publish operation is assembled, so that resubscription (retry) of the
+ * returned publisher sends the same identifier.
  */
 @Slf4j
 @Service
@@ -23,9 +41,26 @@ public class PublisherImpl implements Publisher {
 
     @Qualifier(JmsSubPubConfig.JMS_TEMPLATE)
     private final JmsTemplate jmsTemplate;
+    @Qualifier(JmsSubPubConfig.TRANSACTED_JMS_TEMPLATE)
+    private final JmsTemplate transactedJmsTemplate;
+    private final PublisherTemplates publisherTemplates;
     private final PublisherUtil publisherUtil;
+    @Qualifier(JmsSubPubConfig.PUBLISHER_SCHEDULER)
+    private final Scheduler scheduler;
+    @Qualifier(JmsSubPubConfig.PUBLISHER_SEND_WINDOW)
+    private final Semaphore sendWindow;
+    private final JmsProperties properties;
+    private final BrokerMetrics metrics;
+    private final LocalDispatcher localDispatcher;
+    private final DeduplicationUtil deduplicationUtil;
+    private final ReplyCorrelator replyCorrelator;
+    private final Outbox outbox;
 
     /**
+     * Publishes to the broker. If local dispatch is enabled and all subscribers of the topic are in-process ones, the
+     * model is handed to them directly (and forwarded to the broker if configured). If the outbox is enabled, the
+     * message is appended to the outbox and forwarded to the broker in background.
+     *
      * @param topic           Name of target topic.
      * @param model           Object to publish.
      * @param headers         Additional headers to publish.
@@ -36,9 +71,235 @@ public class PublisherImpl implements Publisher {
     public <TRequestModel> Mono<Void> publish(String topic, TRequestModel model,
                                               Map<String, Object> headers) {
         log.debug("publish started for topic : {}", topic);
+        if (localDispatcher.canDispatch(topic, model)) {
+            var dispatching = localDispatcher.dispatch(topic, model, headers);
+            return properties.local().forward()
+                    ? Mono.when(dispatching, send(topic, model, localDispatcher.mark(topic, headers)))
+                    : dispatching;
+        }
+        return send(topic, model, headers);
+    }
+
+    /**
+     * @param topic           Name of target topic.
+     * @param model           Object to publish.
+     * @param headers         Additional headers to publish.
+     * @param partitionKey    Partition key.
+     * @param <TRequestModel> Type of publishing model (body).
+     * @return End operation signal.
+     */
+    @Override
+    public <TRequestModel> Mono<Void> publish(String topic, TRequestModel model, Map<String, Object> headers,
+                                              String partitionKey) {
+        var result = headers == null ? new HashMap<String, Object>() : new HashMap<>(headers);
+        result.put(PublisherUtil.PARTITION_KEY_HEADER, partitionKey);
+        return publish(topic, model, result);
+    }
+
+    /**
+     * @param topic           Name of target topic.
+     * @param models          Objects to publish.
+     * @param headers         Additional headers to publish with each message.
+     * @param <TRequestModel> Type of publishing models (bodies).
+     * @return End operation signal.
+     */
+    @Override
+    public <TRequestModel> Mono<Void> publishAll(String topic, Flux<TRequestModel> models,
+                                                 Map<String, Object> headers) {
+        log.debug("publishAll started for topic : {}", topic);
+        return publishAll(models.map(model -> new OutgoingMessage<>(topic, model, headers)));
+    }
+
+    /**
+     * @param messages        Messages to publish.
+     * @param <TRequestModel> Type of publishing models (bodies).
+     * @return End operation signal.
+     */
+    @Override
+    public <TRequestModel> Mono<Void> publishAll(Flux<OutgoingMessage<TRequestModel>> messages) {
+        log.debug("publishAll started");
+        var publisher = properties.publisher();
+        return messages
+                .map(message -> new OutgoingMessage<>(
+                        message.topic(), message.model(), deduplicationUtil.stamp(message.headers())))
+                .windowTimeout(publisher.batchSize(), publisher.batchTimeout(), true)
+                .concatMap(window -> window.collectList()
+                        .filter(batch -> !batch.isEmpty())
+                        .flatMap(batch -> Mono.<Void>fromRunnable(() -> sendBatch(batch)).subscribeOn(scheduler)), 1)
+                .then();
+    }
+
+    /**
+     * @param topic   Name of target topic.
+     * @param content Content of message's body.
+     * @param headers Additional headers to publish.
+     * @return End operation signal.
+     */
+    @Override
+    public Mono<Void> publishStream(String topic, InputStream content, Map<String, Object> headers) {
+        log.debug("publishStream started for topic : {}", topic);
+        var meters = metrics.publisher(topic);
+        return Mono.<Void>fromRunnable(() -> {
+                    var start = System.nanoTime();
+                    publisherTemplates.forTopic(topic).send(topic,
+                            session -> publisherUtil.createStreamMessage(session, content, headers));
+                    meters.recordSend(start);
+                })
+                .doOnError(e -> meters.errors().increment())
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * @param topic   Name of target topic.
+     * @param content Content of message's body.
+     * @param headers Additional headers to publish.
+     * @return End operation signal.
+     */
+    @Override
+    public Mono<Void> publishStream(String topic, Flux<ByteBuffer> content, Map<String, Object> headers) {
+        return Mono.using(() -> new ByteBufferInputStream(content, properties.stream().prefetch()),
+                stream -> publishStream(topic, stream, headers),
+                ByteBufferInputStream::close);
+    }
+
+    /**
+     * @param topic           Name of target topic.
+     * @param model           Object to send.
+     * @param headers         Additional headers to publish.
+     * @param replyType       Type of reply's body.
+     * @param timeout         Maximum duration to wait for reply.
+     * @param <TRequestModel> Type of request model (body).
+     * @param <TReplyModel>   Type of reply model (body).
+     * @return Body of reply.
+     */
+    @Override
+    public <TRequestModel, TReplyModel> Mono<TReplyModel> request(String topic, TRequestModel model,
+                                                                  Map<String, Object> headers,
+                                                                  Class<TReplyModel> replyType, Duration timeout) {
+        log.debug("request started for topic : {}", topic);
+        return Mono.fromCallable(replyCorrelator::getReplyQueue)
+                .subscribeOn(scheduler)
+                .flatMap(replyQueue -> {
+                    var correlationId = UUID.randomUUID().toString();
+                    var result = headers == null ? new HashMap<String, Object>() : new HashMap<>(headers);
+                    result.put(PublisherUtil.CORRELATION_ID_HEADER, correlationId);
+                    result.put(PublisherUtil.REPLY_TO_HEADER, replyQueue);
+                    return replyCorrelator.await(correlationId, replyType, timeout, publish(topic, model, result));
+                });
+    }
+
+    /**
+     * @param requestHeaders Headers of received request.
+     * @param model          Body of reply.
+     * @param <TReplyModel>  Type of reply model (body).
+     * @return End operation signal.
+     */
+    @Override
+    public <TReplyModel> Mono<Void> reply(Map<String, Object> requestHeaders, TReplyModel model) {
+        var replyTo = (String) requestHeaders.get(PublisherUtil.REPLY_TO_HEADER);
+        if (replyTo == null) {
+            log.debug("reply skipped since request doesn't expect it");
+            return Mono.empty();
+        }
+
+        log.debug("reply started for queue : {}", replyTo);
+        var correlationId = requestHeaders.get(PublisherUtil.CORRELATION_ID_HEADER);
+        var headers = deduplicationUtil.stamp(correlationId == null
+                ? Map.of()
+                : Map.of(PublisherUtil.CORRELATION_ID_HEADER, correlationId));
+        var meters = metrics.publisher(replyTo);
+        return Mono.<Void>fromRunnable(() -> {
+                    var start = System.nanoTime();
+                    jmsTemplate.send(ActiveMQJMSClient.createQueue(replyTo),
+                            session -> publisherUtil.createMessage(session, replyTo, model, headers));
+                    meters.recordSend(start);
+                })
+                .doOnError(e -> meters.errors().increment())
+                .subscribeOn(scheduler);
+    }
+
+    private Mono<Void> send(String topic, Object model, Map<String, Object> messageHeaders) {
+        var headers = deduplicationUtil.stamp(messageHeaders);
+        if (outbox.isEnabled()) {
+            return Mono.fromCallable(() -> outbox.append(topic, model, headers))
+                    .subscribeOn(scheduler)
+                    .flatMap(appended -> appended ? Mono.empty() : sendDirectly(topic, model, headers));
+        }
+        return sendDirectly(topic, model, headers);
+    }
+
+    private Mono<Void> sendDirectly(String topic, Object model, Map<String, Object> headers) {
+        if (properties.publisher().async()) {
+            return sendAsync(topic, model, headers);
+        }
+
+        var meters = metrics.publisher(topic);
+        return Mono.<Void>fromRunnable(() -> {
+                    var start = System.nanoTime();
+                    publisherTemplates.forTopic(topic).send(topic,
+                            session -> publisherUtil.createMessage(session, topic, model, headers));
+                    meters.recordSend(start);
+                })
+                .doOnError(e -> meters.errors().increment())
+                .subscribeOn(scheduler);
+    }
+
+    private Mono<Void> sendAsync(String topic, Object model, Map<String, Object> headers) {
+        var meters = metrics.publisher(topic);
         return Mono.<Void>create(sink -> {
-            jmsTemplate.convertAndSend(topic, model, publisherUtil.applyHeaders(headers));
-            sink.success();
-        }).publishOn(Schedulers.boundedElastic());
+                    var start = System.nanoTime();
+                    sendWindow.acquireUninterruptibly();
+                    try {
+                        publisherTemplates.forTopic(topic).execute(topic, (session, producer) -> {
+                            producer.send(publisherUtil.createMessage(session, topic, model, headers),
+                                    completionListener(sink, meters, start));
+                            return null;
+                        });
+                    } catch (RuntimeException e) {
+                        sendWindow.release();
+                        sink.error(e);
+                    }
+                })
+                .doOnError(e -> meters.errors().increment())
+                .subscribeOn(scheduler);
+    }
+
+    private CompletionListener completionListener(MonoSink<Void> sink, BrokerMetrics.PublisherMeters meters,
+                                                  long start) {
+        return new CompletionListener() {
+
+            @Override
+            public void onCompletion(jakarta.jms.Message message) {
+                sendWindow.release();
+                meters.recordSend(start);
+                sink.success();
+            }
+
+            @Override
+            public void onException(jakarta.jms.Message message, Exception exception) {
+                sendWindow.release();
+                sink.error(exception);
+            }
+        };
+    }
+
+    private void sendBatch(List<? extends OutgoingMessage<?>> batch) {
+        log.debug("sendBatch started for batch size : {}", batch.size());
+        var pending = outbox.isEnabled()
+                ? batch.stream().filter(message -> !outbox.append(message.topic(), message.model(), message.headers()))
+                        .toList()
+                : batch;
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            publisherUtil.sendInTransaction(transactedJmsTemplate, pending, OutgoingMessage::topic,
+                    (session, message) -> publisherUtil.createMessage(
+                            session, message.topic(), message.model(), message.headers()));
+        } catch (RuntimeException e) {
+            log.error("error occurred while sending batch, rolled back", e);
+            throw e;
+        }
     }
 }
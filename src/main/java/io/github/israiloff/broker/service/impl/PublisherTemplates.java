@@ -0,0 +1,86 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.config.JmsConfig;
+import io.github.israiloff.broker.config.JmsProperties;
+import io.github.israiloff.broker.config.JmsSubPubConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of JMS templates used for publishing to specific topics. Since Artemis producer window is fixed per
+ * connection factory, topics with overridden producer window size are published via dedicated session caching
+ * connection factory of that size (shared by topics of the same size), other topics via the default template.
+ */
+@Slf4j
+@Component
+public class PublisherTemplates implements DisposableBean {
+
+    private final JmsTemplate defaultTemplate;
+    private final Map<String, JmsTemplate> templatesByTopic = new HashMap<>();
+    private final List<CachingConnectionFactory> connectionFactories = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param defaultTemplate  Default JMS template.
+     * @param messageConverter Message converter.
+     * @param properties       JMS properties.
+     */
+    public PublisherTemplates(@Qualifier(JmsSubPubConfig.JMS_TEMPLATE) JmsTemplate defaultTemplate,
+                              @Qualifier(JmsConfig.MESSAGE_CONVERTER) MessageConverter messageConverter,
+                              JmsProperties properties) {
+        this.defaultTemplate = defaultTemplate;
+        var templatesBySize = new HashMap<Integer, JmsTemplate>();
+        properties.publisher().producerWindowSizes().forEach((topic, windowSize) -> {
+            var template = templatesBySize.computeIfAbsent(JmsConfig.toWindowSize(windowSize),
+                    size -> createTemplate(size, messageConverter, properties));
+            templatesByTopic.put(topic, template);
+        });
+        log.debug("publisher templates built for topics : {}", templatesByTopic.keySet());
+    }
+
+    /**
+     * Gets template used for publishing to specified topic.
+     *
+     * @param topic Name of target topic.
+     * @return Template of topic's producer window size or the default one.
+     */
+    public JmsTemplate forTopic(String topic) {
+        return templatesByTopic.getOrDefault(topic, defaultTemplate);
+    }
+
+    /**
+     * Closes connections of dedicated connection factories.
+     */
+    @Override
+    public void destroy() {
+        connectionFactories.forEach(CachingConnectionFactory::destroy);
+    }
+
+    private JmsTemplate createTemplate(int windowSize, MessageConverter messageConverter, JmsProperties properties) {
+        log.debug("createTemplate started for producer window size : {}", windowSize);
+        var connectionFactory = JmsConfig.createConnectionFactory(properties,
+                JmsConfig.toWindowSize(properties.consumer().windowSize()));
+        connectionFactory.setProducerWindowSize(windowSize);
+        var cachingConnectionFactory = new CachingConnectionFactory(connectionFactory);
+        cachingConnectionFactory.setSessionCacheSize(properties.publisher().sessionCacheSize());
+        cachingConnectionFactory.setCacheProducers(true);
+        cachingConnectionFactory.setCacheConsumers(false);
+        connectionFactories.add(cachingConnectionFactory);
+
+        var template = new JmsTemplate(cachingConnectionFactory);
+        template.setMessageConverter(messageConverter);
+        template.setPubSubDomain(defaultTemplate.isPubSubDomain());
+        return template;
+    }
+}
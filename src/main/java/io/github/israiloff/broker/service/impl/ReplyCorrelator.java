@@ -0,0 +1,157 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.config.JmsConfig;
+import io.github.israiloff.broker.util.ListenerUtil;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageListener;
+import jakarta.jms.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.api.jms.ActiveMQJMSClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jms.connection.SingleConnectionFactory;
+import org.springframework.jms.listener.SimpleMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Correlator of replies to requests sent by this instance. All requests share single long-lived reply queue consumed
+ * by single container, which is started on the first request. Replies are matched to pending requests by
+ * {@code JMSCorrelationID} through concurrent map, entries of timed out requests are evicted.
+ */
+@Slf4j
+@Component
+public class ReplyCorrelator implements DisposableBean {
+
+    /**
+     * Name of the subscription replies are consumed by. Used instead of the instance specific reply queue name, so
+     * that consumption of replies is instrumented by the same meters across restarts.
+     */
+    public static final String REPLY_SUBSCRIPTION = "broker.reply";
+
+    private final ConnectionFactory connectionFactory;
+    private final ListenerUtil listenerUtil;
+    private final String replyQueue = "broker.reply." + UUID.randomUUID();
+    private final Map<String, Pending<?>> pending = new ConcurrentHashMap<>();
+    private volatile SimpleMessageListenerContainer container;
+
+    /**
+     * Constructor.
+     *
+     * @param connectionFactory Artemis connection factory.
+     * @param listenerUtil      Listener utilities.
+     */
+    public ReplyCorrelator(@Qualifier(JmsConfig.CONNECTION_FACTORY) ConnectionFactory connectionFactory,
+                           ListenerUtil listenerUtil) {
+        this.connectionFactory = connectionFactory;
+        this.listenerUtil = listenerUtil;
+    }
+
+    /**
+     * Gets name of the reply queue of this instance, starting its consumer if not started yet.
+     *
+     * @return Name of the reply queue.
+     */
+    public String getReplyQueue() {
+        if (container == null) {
+            start();
+        }
+        return replyQueue;
+    }
+
+    /**
+     * Sends request and awaits its reply. The request is registered before it is sent, so that reply can't outrun it,
+     * and is unregistered once the returned publisher terminates or is cancelled.
+     *
+     * @param correlationId Correlation identifier of request.
+     * @param replyType     Type of reply's body.
+     * @param timeout       Maximum duration to wait for reply once the request is sent.
+     * @param sending       Sending of request.
+     * @param <TReplyModel> Type of reply's body.
+     * @return Body of reply. Fails with {@link java.util.concurrent.TimeoutException} if there is no reply in time.
+     */
+    public <TReplyModel> Mono<TReplyModel> await(String correlationId, Class<TReplyModel> replyType,
+                                                 Duration timeout, Mono<Void> sending) {
+        return Mono.defer(() -> {
+            var reply = Sinks.<TReplyModel>one();
+            pending.put(correlationId, new Pending<>(replyType, reply));
+            return sending.then(reply.asMono().timeout(timeout))
+                    .doFinally(signal -> pending.remove(correlationId));
+        });
+    }
+
+    /**
+     * Stops the reply queue's consumer and closes its connection. Pending requests are left to time out.
+     */
+    @Override
+    public void destroy() {
+        var current = container;
+        if (current != null) {
+            current.shutdown();
+            ((SingleConnectionFactory) current.getConnectionFactory()).destroy();
+        }
+    }
+
+    private synchronized void start() {
+        if (container != null) {
+            return;
+        }
+
+        log.debug("reply consumer started for queue : {}", replyQueue);
+        var singleConnectionFactory = new SingleConnectionFactory(connectionFactory);
+        singleConnectionFactory.setReconnectOnException(true);
+        var result = new SimpleMessageListenerContainer();
+        result.setConnectionFactory(singleConnectionFactory);
+        result.setSessionAcknowledgeMode(Session.AUTO_ACKNOWLEDGE);
+        result.setDestination(ActiveMQJMSClient.createQueue(replyQueue));
+        result.setMessageListener((MessageListener) this::onReply);
+        result.afterPropertiesSet();
+        result.start();
+        container = result;
+    }
+
+    private void onReply(jakarta.jms.Message message) {
+        String correlationId;
+        try {
+            correlationId = message.getJMSCorrelationID();
+        } catch (JMSException e) {
+            log.error("correlation identifier of reply can't be resolved, reply is dropped", e);
+            return;
+        }
+
+        var request = correlationId == null ? null : pending.remove(correlationId);
+        if (request == null) {
+            log.debug("reply is dropped since there is no pending request with correlation id : {}", correlationId);
+            return;
+        }
+
+        complete(request, message);
+    }
+
+    private <TReplyModel> void complete(Pending<TReplyModel> request, jakarta.jms.Message message) {
+        try {
+            request.sink().tryEmitValue(
+                    listenerUtil.extract(message, REPLY_SUBSCRIPTION).decode(request.replyType()));
+        } catch (RuntimeException e) {
+            log.error("reply can't be decoded", e);
+            request.sink().tryEmitError(e);
+        }
+    }
+
+    /**
+     * Pending request.
+     *
+     * @param replyType     Type of reply's body.
+     * @param sink          Sink of reply's body.
+     * @param <TReplyModel> Type of reply's body.
+     */
+    private record Pending<TReplyModel>(Class<TReplyModel> replyType, Sinks.One<TReplyModel> sink) {
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.config.ConsumptionMode;
+import io.github.israiloff.broker.config.JmsProperties;
+import io.github.israiloff.broker.config.RejectionPolicy;
+import io.github.israiloff.broker.metrics.BrokerMetrics;
+import io.github.israiloff.broker.service.StreamSubscriber;
+import io.github.israiloff.broker.util.ByteBufferPipe;
+import io.github.israiloff.broker.util.ListenerUtil;
+import io.github.israiloff.broker.util.SchedulerUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entry point of large messages consumed by {@link StreamSubscriber}s. Body of message is written by Artemis into
+ * bounded pipe on the listener's thread, while the subscriber consumes it on another thread. The listener's thread is
+ * blocked until the whole body is received or the subscriber's handling terminates (the rest of the body is skipped
+ * then). Body is read on the subscriber's own bounded scheduler sized by {@code consumer.bulkhead} properties. Since
+ * the listener's thread writes the body, reading is never executed on it, i.e. saturated scheduler rejects reading.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamMessageListener implements DisposableBean {
+
+    /**
+     * Name of the Artemis property accepting output stream to save large message's body to.
+     */
+    public static final String SAVE_STREAM_PROPERTY = "JMS_AMQ_SaveStream";
+
+    private final ListenerUtil listenerUtil;
+    private final JmsProperties properties;
+    private final BrokerMetrics metrics;
+    private final SchedulerUtil schedulerUtil;
+    private final Map<StreamSubscriber, Scheduler> schedulers = new ConcurrentHashMap<>();
+
+    /**
+     * Handler of incoming messages. In {@link ConsumptionMode#ON_COMPLETION} mode blocks the listener's thread until
+     * the message is handled.
+     *
+     * @param message    Incoming message.
+     * @param subscriber Target subscriber.
+     */
+    @SneakyThrows
+    public void onMessage(jakarta.jms.Message message, StreamSubscriber subscriber) {
+        log.debug("onMessage started for topic : {}", subscriber.getTopic());
+        var meters = metrics.handler(subscriber, subscriber.getTopic());
+        var pipe = new ByteBufferPipe(properties.stream().bufferedChunks(),
+                schedulers.computeIfAbsent(subscriber, this::createScheduler));
+        var start = System.nanoTime();
+        meters.inFlight().incrementAndGet();
+        var handling = subscriber.handle(pipe.asFlux(), listenerUtil.getHeaders(message))
+                .doOnError(e -> {
+                    meters.errors().increment();
+                    log.error("error occurred while processing streamed jms message", e);
+                })
+                .doFinally(signal -> {
+                    pipe.cancel();
+                    meters.inFlight().decrementAndGet();
+                    meters.recordHandling(start, 1);
+                })
+                .toFuture();
+
+        var output = pipe.getOutputStream();
+        try {
+            message.setObjectProperty(SAVE_STREAM_PROPERTY, output);
+            output.close();
+        } catch (Exception e) {
+            if (!pipe.isCancelled()) {
+                pipe.fail(e);
+                throw e;
+            }
+            log.debug("rest of the body is skipped since it is cancelled by subscriber");
+        }
+
+        if (properties.consumer().mode() == ConsumptionMode.ON_COMPLETION) {
+            handling.join();
+        }
+    }
+
+    /**
+     * Disposes subscribers' schedulers.
+     */
+    @Override
+    public void destroy() {
+        schedulers.values().forEach(Scheduler::dispose);
+    }
+
+    private Scheduler createScheduler(StreamSubscriber subscriber) {
+        var bulkhead = properties.consumer().bulkhead();
+        return schedulerUtil.newScheduler(
+                "broker-stream-" + subscriber.getTopic() + "-" + ClassUtils.getUserClass(subscriber).getSimpleName(),
+                bulkhead.threads(), bulkhead.queueCapacity(), bulkhead.virtualThreads(), RejectionPolicy.ABORT);
+    }
+}
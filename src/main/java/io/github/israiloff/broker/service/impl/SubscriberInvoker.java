@@ -0,0 +1,71 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.config.JmsProperties;
+import io.github.israiloff.broker.metrics.BrokerMetrics;
+import io.github.israiloff.broker.model.Message;
+import io.github.israiloff.broker.service.Subscriber;
+import io.github.israiloff.broker.util.SchedulerUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Invoker of subscribers' handlers. Instruments each invocation. If bulkheads are enabled, each subscriber's handler
+ * is executed on its own bounded scheduler, so that slow or blocking subscriber can exhaust its own threads and queue
+ * only.
+ */
+@Component
+@RequiredArgsConstructor
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class SubscriberInvoker implements DisposableBean {
+
+    private final BrokerMetrics metrics;
+    private final SchedulerUtil schedulerUtil;
+    private final JmsProperties properties;
+    private final Map<Subscriber, Scheduler> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * Invokes handler of specified subscriber.
+     *
+     * @param subscriber Target subscriber.
+     * @param message    Message to handle.
+     * @return End operation signal.
+     */
+    public Mono<Void> invoke(Subscriber subscriber, Message message) {
+        var meters = metrics.handler(subscriber, subscriber.getTopic());
+        var invocation = Mono.defer(() -> {
+            var start = System.nanoTime();
+            meters.inFlight().incrementAndGet();
+            return subscriber.handle(message)
+                    .doOnError(e -> meters.errors().increment())
+                    .doFinally(signal -> {
+                        meters.inFlight().decrementAndGet();
+                        meters.recordHandling(start, 1);
+                    });
+        });
+        return properties.consumer().bulkhead().enabled()
+                ? invocation.subscribeOn(bulkheads.computeIfAbsent(subscriber, this::createBulkhead))
+                : invocation;
+    }
+
+    /**
+     * Disposes bulkheads' schedulers.
+     */
+    @Override
+    public void destroy() {
+        bulkheads.values().forEach(Scheduler::dispose);
+    }
+
+    private Scheduler createBulkhead(Subscriber subscriber) {
+        var bulkhead = properties.consumer().bulkhead();
+        return schedulerUtil.newScheduler(
+                "broker-" + subscriber.getTopic() + "-" + ClassUtils.getUserClass(subscriber).getSimpleName(),
+                bulkhead.threads(), bulkhead.queueCapacity(), bulkhead.virtualThreads(), bulkhead.rejection());
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.service.Subscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Routing index of registered subscribers. Built once at startup. Resolves subscribers of concrete address via hash
+ * map (for exact topic names) and trie (for Artemis wildcard addresses, e.g. {@code news.#},
+ * {@code orders.*.created}). Resolved routes are cached.
+ */
+@Slf4j
+@Component
+@SuppressWarnings("rawtypes")
+public class SubscriberRegistry {
+
+    /**
+     * Delimiter of address' words.
+     */
+    public static final String DELIMITER = ".";
+
+    /**
+     * Wildcard matching exactly one word.
+     */
+    public static final String ANY_WORD = "*";
+
+    /**
+     * Wildcard matching zero or more words.
+     */
+    public static final String ANY_WORDS = "#";
+
+    /**
+     * Maximum count of cached routes. Routes of addresses resolved after the cache is full are not cached.
+     */
+    public static final int MAX_CACHED_ROUTES = 10_000;
+
+    private final Map<String, List<Subscriber>> exactRoutes = new HashMap<>();
+    private final Node wildcardRoutes = new Node();
+    private final Map<String, List<Subscriber>> cachedRoutes = new ConcurrentHashMap<>();
+    private final List<Subscriber> subscribers;
+    private final Map<String, List<Subscriber>> subscriptions;
+
+    /**
+     * Constructor.
+     *
+     * @param subscribers Collection of the all registered subscribers.
+     */
+    public SubscriberRegistry(List<Subscriber> subscribers) {
+        this.subscribers = List.copyOf(subscribers);
+        subscribers.forEach(this::register);
+        subscriptions = cover(subscribers);
+        log.debug("subscriber registry built for subscriptions : {}", subscriptions.keySet());
+    }
+
+    /**
+     * Checks whether specified topic contains wildcards.
+     *
+     * @param topic Target topic.
+     * @return True if topic contains wildcards.
+     */
+    public static boolean isWildcard(String topic) {
+        return topic.contains(ANY_WORD) || topic.contains(ANY_WORDS);
+    }
+
+    /**
+     * Resolves subscribers of specified address.
+     *
+     * @param address Concrete address (i.e. topic name of incoming message).
+     * @return Matched subscribers. Empty if there is no one.
+     */
+    public List<Subscriber> route(String address) {
+        var route = cachedRoutes.get(address);
+        if (route != null) {
+            return route;
+        }
+
+        route = resolve(address);
+        if (cachedRoutes.size() < MAX_CACHED_ROUTES) {
+            cachedRoutes.put(address, route);
+        }
+        return route;
+    }
+
+    /**
+     * Gets the minimal set of subscriptions (topic names) covering all registered subscribers. Topics covered by
+     * wildcard topic of another subscriber are not included, so that message is consumed only once.
+     *
+     * @return Subscriptions mapped to the subscribers they cover.
+     */
+    public Map<String, List<Subscriber>> getSubscriptions() {
+        return Collections.unmodifiableMap(subscriptions);
+    }
+
+    /**
+     * Gets the minimal set of subscriptions covering the registered subscribers matching specified filter.
+     *
+     * @param filter Filter of subscribers to cover.
+     * @return Subscriptions mapped to the subscribers they cover.
+     * @see #getSubscriptions()
+     */
+    public Map<String, List<Subscriber>> getSubscriptions(Predicate<Subscriber> filter) {
+        return Collections.unmodifiableMap(cover(subscribers.stream().filter(filter).toList()));
+    }
+
+    private List<Subscriber> resolve(String address) {
+        var result = new LinkedHashSet<Subscriber>(exactRoutes.getOrDefault(address, List.of()));
+        collect(wildcardRoutes, address.split("\\" + DELIMITER), 0, result);
+        return List.copyOf(result);
+    }
+
+    private void register(Subscriber subscriber) {
+        var topic = subscriber.getTopic();
+        if (!isWildcard(topic)) {
+            exactRoutes.computeIfAbsent(topic, key -> new ArrayList<>()).add(subscriber);
+            return;
+        }
+
+        var node = wildcardRoutes;
+        for (var word : topic.split("\\" + DELIMITER)) {
+            node = node.child(word);
+        }
+        node.subscribers.add(subscriber);
+    }
+
+    private Map<String, List<Subscriber>> cover(List<Subscriber> subscribers) {
+        var result = new LinkedHashMap<String, List<Subscriber>>();
+        subscribers.forEach(subscriber -> subscribe(result, subscriber));
+        return result;
+    }
+
+    private void subscribe(Map<String, List<Subscriber>> subscriptions, Subscriber subscriber) {
+        var topic = subscriber.getTopic();
+        var covering = subscriptions.keySet().stream()
+                .filter(subscription -> covers(subscription, topic))
+                .findFirst();
+
+        if (covering.isPresent()) {
+            subscriptions.get(covering.get()).add(subscriber);
+            return;
+        }
+
+        var covered = new ArrayList<Subscriber>();
+        covered.add(subscriber);
+        subscriptions.entrySet().removeIf(entry -> {
+            if (covers(topic, entry.getKey())) {
+                covered.addAll(entry.getValue());
+                return true;
+            }
+            return false;
+        });
+        subscriptions.put(topic, covered);
+    }
+
+    private void collect(Node node, String[] words, int index, Collection<Subscriber> result) {
+        if (node.anyWords != null) {
+            for (var next = index; next <= words.length; next++) {
+                collect(node.anyWords, words, next, result);
+            }
+        }
+
+        if (index == words.length) {
+            result.addAll(node.subscribers);
+            return;
+        }
+
+        var child = node.children.get(words[index]);
+        if (child != null) {
+            collect(child, words, index + 1, result);
+        }
+        if (node.anyWord != null) {
+            collect(node.anyWord, words, index + 1, result);
+        }
+    }
+
+    /**
+     * Checks whether specified topic covers another one, i.e. all messages of the other topic match the topic.
+     *
+     * @param topic Topic which may contain wildcards.
+     * @param other Another topic (e.g. concrete address).
+     * @return True if the topic covers the other one.
+     */
+    public static boolean covers(String topic, String other) {
+        return covers(topic.split("\\" + DELIMITER), 0, other.split("\\" + DELIMITER), 0);
+    }
+
+    private static boolean covers(String[] topic, int topicIndex, String[] other, int otherIndex) {
+        if (topicIndex == topic.length) {
+            return otherIndex == other.length;
+        }
+
+        if (ANY_WORDS.equals(topic[topicIndex])) {
+            return covers(topic, topicIndex + 1, other, otherIndex)
+                    || (otherIndex < other.length && covers(topic, topicIndex, other, otherIndex + 1));
+        }
+
+        if (otherIndex == other.length || ANY_WORDS.equals(other[otherIndex])) {
+            return false;
+        }
+
+        if (ANY_WORD.equals(topic[topicIndex])) {
+            return covers(topic, topicIndex + 1, other, otherIndex + 1);
+        }
+
+        return topic[topicIndex].equals(other[otherIndex])
+                && covers(topic, topicIndex + 1, other, otherIndex + 1);
+    }
+
+    /**
+     * Node of the wildcard addresses' trie.
+     */
+    private static class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+        private Node anyWord;
+        private Node anyWords;
+
+        private Node child(String word) {
+            if (ANY_WORD.equals(word)) {
+                return anyWord == null ? (anyWord = new Node()) : anyWord;
+            }
+
+            if (ANY_WORDS.equals(word)) {
+                return anyWords == null ? (anyWords = new Node()) : anyWords;
+            }
+
+            return children.computeIfAbsent(word, key -> new Node());
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.config.JmsConfig;
+import io.github.israiloff.broker.config.JmsProperties;
+import io.github.israiloff.broker.metrics.BrokerMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jms.listener.SimpleMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+
+/**
+ * Adaptive controller of listener containers' consumer windows. Periodically evaluates average handling latency and
+ * in-flight depth of each container's subscribers: the window is halved if latency exceeds the target or too many
+ * messages are being handled, and doubled if messages are handled fast enough. Window sizes are taken from fixed set
+ * of buckets (minimum size doubled up to maximum one), so that containers of the same window size share connection.
+ * Since Artemis consumer window is fixed for consumer's lifetime, new window is applied by replacing the container
+ * bean with a new one consuming via connection of the new window size, not more often than once per cooldown. The new
+ * container bean is registered and started before the old one is removed from the context (which shuts it down), so
+ * that messages of the old one's window are returned to the shared subscription (or queue) and consumed by the new
+ * one. Hence only containers of queues and shared subscriptions may be controlled: non shared topic subscription of
+ * the new container would miss messages published before it is created.
+ */
+@Slf4j
+@Component
+public class WindowController implements DisposableBean {
+
+    private static final int MIN_BUCKET_SIZE = 1024;
+
+    private final BrokerMetrics metrics;
+    private final JmsProperties properties;
+    private final GenericApplicationContext applicationContext;
+    private final List<Integer> windowSizes;
+    private final List<Window> windows = new CopyOnWriteArrayList<>();
+    private Disposable task;
+
+    /**
+     * Constructor.
+     *
+     * @param metrics            Instrumentation of consumption.
+     * @param properties         JMS properties.
+     * @param applicationContext Context the controlled containers are registered in.
+     */
+    public WindowController(BrokerMetrics metrics, JmsProperties properties,
+                            GenericApplicationContext applicationContext) {
+        this.metrics = metrics;
+        this.properties = properties;
+        this.applicationContext = applicationContext;
+        this.windowSizes = createWindowSizes(properties);
+    }
+
+    /**
+     * Registers listener container bean whose window is controlled.
+     *
+     * @param beanName     Name of the container's bean.
+     * @param container    Listener container of a queue or shared subscription.
+     * @param subscription Name of the container's subscription.
+     * @param handlers     Handler meters of the container's subscribers.
+     * @param windowSize   Initial window size in bytes (see {@link #getInitialWindowSize()}).
+     * @param containers   Factory of not yet started replacement containers by window size in bytes.
+     */
+    public void register(String beanName, SimpleMessageListenerContainer container, String subscription,
+                         Collection<BrokerMetrics.HandlerMeters> handlers, int windowSize,
+                         IntFunction<SimpleMessageListenerContainer> containers) {
+        windows.add(new Window(beanName, container, subscription, List.copyOf(handlers), containers, windowSize));
+    }
+
+    /**
+     * Gets initial window size of adaptive containers, i.e. the largest bucket not exceeding the default size.
+     *
+     * @return Window size in bytes.
+     */
+    public int getInitialWindowSize() {
+        var windowSize = JmsConfig.toWindowSize(properties.consumer().windowSize());
+        var result = windowSizes.get(0);
+        for (var size : windowSizes) {
+            if (windowSize >= 0 && size > windowSize) {
+                break;
+            }
+            result = size;
+        }
+        return result;
+    }
+
+    /**
+     * Starts periodic evaluation of registered containers.
+     */
+    public synchronized void start() {
+        if (task != null || windows.isEmpty()) {
+            return;
+        }
+
+        var interval = properties.consumer().adaptiveWindow().interval();
+        log.debug("window controller started for containers : {}, interval : {}", windows.size(), interval);
+        task = Flux.interval(interval, Schedulers.boundedElastic())
+                .subscribe(tick -> windows.forEach(this::adjust));
+    }
+
+    /**
+     * Stops periodic evaluation. Controlled containers are shut down by the context as any other bean.
+     */
+    @Override
+    public synchronized void destroy() {
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    private void adjust(Window window) {
+        var handled = 0L;
+        var handledNanos = 0L;
+        var inFlight = 0;
+        for (var meters : window.handlers) {
+            handled += meters.handled().sum();
+            handledNanos += meters.handledNanos().sum();
+            inFlight += meters.inFlight().get();
+        }
+
+        var count = handled - window.handled;
+        var latency = count > 0 ? (handledNanos - window.handledNanos) / count : 0;
+        window.handled = handled;
+        window.handledNanos = handledNanos;
+
+        var adaptive = properties.consumer().adaptiveWindow();
+        int windowSize;
+        if (latency > adaptive.targetLatency().toNanos() || inFlight > adaptive.maxInFlight()) {
+            windowSize = getNeighbourSize(window.size, -1);
+        } else if (count > 0) {
+            windowSize = getNeighbourSize(window.size, 1);
+        } else {
+            return;
+        }
+
+        if (windowSize == window.size || System.nanoTime() - window.changedAt < adaptive.cooldown().toNanos()) {
+            return;
+        }
+
+        log.info("consumer window of subscription {} resized from {} to {} bytes, latency : {} ns, in flight : {}",
+                window.subscription, window.size, windowSize, latency, inFlight);
+        var beanName = window.baseBeanName + "_window_" + windowSize;
+        try {
+            var replacement = window.containers.apply(windowSize);
+            applicationContext.registerBean(beanName, SimpleMessageListenerContainer.class, () -> replacement);
+            applicationContext.getBean(beanName, SimpleMessageListenerContainer.class).start();
+            metrics.registerContainer(replacement);
+            remove(window.beanName, window.container);
+            window.beanName = beanName;
+            window.container = replacement;
+            window.size = windowSize;
+        } catch (RuntimeException e) {
+            log.error("consumer window of subscription {} can't be resized", window.subscription, e);
+            if (applicationContext.containsBeanDefinition(beanName)) {
+                applicationContext.removeBeanDefinition(beanName);
+            }
+        } finally {
+            window.changedAt = System.nanoTime();
+        }
+    }
+
+    private void remove(String beanName, SimpleMessageListenerContainer container) {
+        try {
+            var instantiated = applicationContext.getBeanFactory().containsSingleton(beanName);
+            applicationContext.removeBeanDefinition(beanName);
+            if (!instantiated) {
+                container.shutdown();
+            }
+        } catch (RuntimeException e) {
+            log.error("replaced container {} can't be shut down", beanName, e);
+        } finally {
+            metrics.unregisterContainer(container);
+        }
+    }
+
+    private int getNeighbourSize(int windowSize, int step) {
+        var index = Math.max(windowSizes.indexOf(windowSize), 0) + step;
+        return windowSizes.get(Math.min(Math.max(index, 0), windowSizes.size() - 1));
+    }
+
+    private static List<Integer> createWindowSizes(JmsProperties properties) {
+        var adaptive = properties.consumer().adaptiveWindow();
+        var min = JmsConfig.toWindowSize(adaptive.minWindowSize());
+        var max = JmsConfig.toWindowSize(adaptive.maxWindowSize());
+        var result = new ArrayList<Integer>();
+        for (long size = Math.max(min, 0); max < 0 || size < max; size = Math.max(2 * size, MIN_BUCKET_SIZE)) {
+            if (size > Integer.MAX_VALUE / 2) {
+                break;
+            }
+            result.add((int) size);
+        }
+        result.add(max);
+        return List.copyOf(result);
+    }
+
+    /**
+     * Controlled window of a listener container.
+     */
+    private static class Window {
+
+        private final String baseBeanName;
+        private final String subscription;
+        private final List<BrokerMetrics.HandlerMeters> handlers;
+        private final IntFunction<SimpleMessageListenerContainer> containers;
+        private String beanName;
+        private SimpleMessageListenerContainer container;
+        private int size;
+        private long handled;
+        private long handledNanos;
+        private long changedAt = System.nanoTime();
+
+        private Window(String beanName, SimpleMessageListenerContainer container, String subscription,
+                       List<BrokerMetrics.HandlerMeters> handlers,
+                       IntFunction<SimpleMessageListenerContainer> containers, int size) {
+            this.baseBeanName = beanName;
+            this.beanName = beanName;
+            this.container = container;
+            this.subscription = subscription;
+            this.handlers = handlers;
+            this.containers = containers;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.israiloff.broker.util;
+
+import reactor.core.publisher.Flux;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Blocking {@link InputStream} over {@link Flux} of {@link ByteBuffer}. Chunks are requested from the flux on demand
+ * with bounded prefetch, so that only a few chunks are held in memory at once.
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    private final Stream<ByteBuffer> stream;
+    private final Iterator<ByteBuffer> chunks;
+    private ByteBuffer current;
+
+    /**
+     * Constructor. Subscribes to the flux.
+     *
+     * @param content  Content to read.
+     * @param prefetch Maximum count of chunks requested in advance.
+     */
+    public ByteBufferInputStream(Flux<ByteBuffer> content, int prefetch) {
+        this.stream = content.toStream(Math.max(prefetch, 1));
+        this.chunks = stream.iterator();
+    }
+
+    @Override
+    public int read() {
+        if (!nextChunk()) {
+            return -1;
+        }
+        return current.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+
+        if (!nextChunk()) {
+            return -1;
+        }
+
+        var count = Math.min(length, current.remaining());
+        current.get(bytes, offset, count);
+        return count;
+    }
+
+    /**
+     * Cancels subscription to the flux.
+     */
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private boolean nextChunk() {
+        while (current == null || !current.hasRemaining()) {
+            if (!chunks.hasNext()) {
+                return false;
+            }
+            current = chunks.next();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.israiloff.broker.util;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pipe of binary chunks between blocking writer ({@link OutputStream}) and backpressured reader
+ * ({@link Flux} of {@link ByteBuffer}). Writer is blocked while the pipe is full, so that at most {@code capacity}
+ * chunks are held in memory regardless of total size of the content.
+ */
+public class ByteBufferPipe {
+
+    private static final Object END = new Object();
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final BlockingQueue<Object> chunks;
+    private final Scheduler scheduler;
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity  Maximum count of chunks held in the pipe.
+     * @param scheduler Scheduler to take chunks on. Reading blocks its thread while the pipe is empty.
+     */
+    public ByteBufferPipe(int capacity, Scheduler scheduler) {
+        this.chunks = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Gets writing side of the pipe. Written bytes are copied, closing the stream completes the reading side.
+     *
+     * @return Output stream.
+     */
+    public OutputStream getOutputStream() {
+        return new OutputStream() {
+
+            @Override
+            public void write(int value) throws IOException {
+                write(new byte[]{(byte) value}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                if (length > 0) {
+                    put(ByteBuffer.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                put(END);
+            }
+        };
+    }
+
+    /**
+     * Gets reading side of the pipe. Chunks are taken on demand on the pipe's scheduler. Cancellation of the
+     * subscription makes further writes fail.
+     *
+     * @return Flux of chunks.
+     */
+    public Flux<ByteBuffer> asFlux() {
+        return Flux.<ByteBuffer>generate(sink -> {
+                    try {
+                        var chunk = chunks.take();
+                        if (chunk == END) {
+                            sink.complete();
+                        } else if (chunk instanceof Throwable error) {
+                            sink.error(error);
+                        } else {
+                            sink.next((ByteBuffer) chunk);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        sink.error(e);
+                    }
+                })
+                .doOnCancel(() -> cancelled = true)
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Cancels the pipe, so that blocked and further writes fail. Should be called once the reader is done, e.g. when
+     * it completes without consuming the whole content.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether reading side of the pipe is cancelled.
+     *
+     * @return True if reading side is cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Terminates reading side of the pipe with specified error. Chunks not yet read are dropped, so that the writer
+     * isn't blocked.
+     *
+     * @param error Cause of failure.
+     */
+    public void fail(Throwable error) {
+        chunks.clear();
+        chunks.offer(error);
+    }
+
+    private void put(Object chunk) throws IOException {
+        try {
+            while (!cancelled) {
+                if (chunks.offer(chunk, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("writing to pipe is interrupted");
+        }
+        throw new IOException("reading side of pipe is cancelled");
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.israiloff.broker.util;
+
+import io.github.israiloff.broker.config.JmsProperties;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Utilities for deduplication of messages. Published messages are stamped with Artemis duplicate detection
+ * identifier unique per publish. Identifiers of processed messages are remembered by consumers per subscription in
+ * bounded cache of 64-bit hashes of subscription and identifier, split into independently locked stripes. Each
+ * stripe keeps two generations of open addressing tables of primitive longs, the older generation is dropped once the
+ * newer one is full, so memory footprint is fixed.
+ */
+@Slf4j
+@Component
+public class DeduplicationUtil {
+
+    /**
+     * Name of the header containing Artemis duplicate detection identifier of message.
+     */
+    public static final String DUPLICATE_ID_HEADER = "_AMQ_DUPL_ID";
+
+    /**
+     * Identifier meaning that message can't be (or shouldn't be) deduplicated.
+     */
+    public static final long NO_ID = 0;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final JmsProperties properties;
+    private final Stripe[] stripes;
+
+    /**
+     * Constructor.
+     *
+     * @param properties JMS properties.
+     */
+    public DeduplicationUtil(JmsProperties properties) {
+        this.properties = properties;
+        var deduplication = properties.deduplication();
+        var count = deduplication.consume() ? Math.max(deduplication.stripes(), 1) : 0;
+        stripes = new Stripe[count];
+        for (var index = 0; index < count; index++) {
+            stripes[index] = new Stripe(Math.max(deduplication.cacheSize() / count, 1));
+        }
+    }
+
+    /**
+     * Stamps headers of published message with random duplicate detection identifier, unless headers already have
+     * one (i.e. supplied by the caller) or stamping is disabled. Should be called once per publish operation, so that
+     * retries of the operation send the same identifier.
+     *
+     * @param headers Additional headers to publish. Can be null.
+     * @return Copy of headers containing {@link #DUPLICATE_ID_HEADER} or the same headers if stamping isn't needed.
+     */
+    public Map<String, Object> stamp(Map<String, Object> headers) {
+        if (!properties.deduplication().publish() || headers != null && headers.containsKey(DUPLICATE_ID_HEADER)) {
+            return headers;
+        }
+
+        var result = headers == null ? new HashMap<String, Object>() : new HashMap<>(headers);
+        result.put(DUPLICATE_ID_HEADER, UUID.randomUUID().toString());
+        return result;
+    }
+
+    /**
+     * Gets identifier of incoming message within the subscription: hash of the subscription's name and duplicate
+     * detection identifier if exists, otherwise of {@code JMSMessageID} (which is kept by redeliveries). So that
+     * subscriptions receiving the same message don't skip it for each other.
+     *
+     * @param message      Incoming message.
+     * @param subscription Name of the subscription receiving the message.
+     * @return Identifier or {@link #NO_ID} if consumer side deduplication is disabled or message has no identifier.
+     */
+    public long getId(Message message, String subscription) {
+        if (stripes.length == 0) {
+            return NO_ID;
+        }
+
+        try {
+            var id = message.getObjectProperty(DUPLICATE_ID_HEADER);
+            if (id == null) {
+                id = message.getJMSMessageID();
+            }
+            return hash(subscription, id);
+        } catch (JMSException e) {
+            log.warn("identifier of message can't be resolved, message won't be deduplicated", e);
+            return NO_ID;
+        }
+    }
+
+    /**
+     * Checks whether message has already been processed.
+     *
+     * @param id Identifier of message.
+     * @return True if message has already been processed.
+     */
+    public boolean isProcessed(long id) {
+        return id != NO_ID && stripe(id).contains(id);
+    }
+
+    /**
+     * Remembers message as processed.
+     *
+     * @param id Identifier of message.
+     */
+    public void markProcessed(long id) {
+        if (id != NO_ID) {
+            stripe(id).add(id);
+        }
+    }
+
+    private Stripe stripe(long id) {
+        return stripes[Math.floorMod(Long.hashCode(id), stripes.length)];
+    }
+
+    private long hash(String subscription, Object id) {
+        if (id == null) {
+            return NO_ID;
+        }
+
+        var hash = hash(FNV_OFFSET, subscription);
+        // zero separator, so that different pairs of subscription and identifier don't hash the same concatenation
+        hash *= FNV_PRIME;
+        if (id instanceof byte[] bytes) {
+            for (var value : bytes) {
+                hash = (hash ^ value) * FNV_PRIME;
+            }
+        } else {
+            hash = hash(hash, id.toString());
+        }
+        hash ^= hash >>> 33;
+        return hash == NO_ID ? 1 : hash;
+    }
+
+    private long hash(long hash, String value) {
+        for (var index = 0; index < value.length(); index++) {
+            hash = (hash ^ value.charAt(index)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Stripe of the processed identifiers' cache.
+     */
+    private static class Stripe {
+
+        private final int capacity;
+        private long[] current;
+        private long[] previous;
+        private int size;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+            var length = Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1) << 1;
+            current = new long[length];
+            previous = new long[length];
+        }
+
+        private synchronized boolean contains(long id) {
+            return contains(current, id) || contains(previous, id);
+        }
+
+        private synchronized void add(long id) {
+            if (contains(current, id)) {
+                return;
+            }
+
+            if (size >= capacity) {
+                var table = previous;
+                previous = current;
+                current = table;
+                Arrays.fill(current, NO_ID);
+                size = 0;
+            }
+
+            var mask = current.length - 1;
+            var index = (int) id & mask;
+            while (current[index] != NO_ID) {
+                index = (index + 1) & mask;
+            }
+            current[index] = id;
+            size++;
+        }
+
+        private static boolean contains(long[] table, long id) {
+            var mask = table.length - 1;
+            var index = (int) id & mask;
+            while (table[index] != NO_ID) {
+                if (table[index] == id) {
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.israiloff.broker.util;
+
+import io.github.israiloff.broker.codec.PayloadCodec;
+
+import java.util.Map;
+
+/**
+ * Data extracted from incoming message.
+ *
+ * @param topic   Topic name.
+ * @param text    Text payload. Null if payload is binary.
+ * @param bytes   Binary payload. Null if payload is text.
+ * @param codec   Codec of payload.
+ * @param headers Headers of message.
+ */
+public record InboundMessage(String topic, String text, byte[] bytes, PayloadCodec codec,
+                             Map<String, Object> headers) {
+
+    /**
+     * Decodes payload of message.
+     *
+     * @param type        Class of expected object.
+     * @param <TResponse> Type of expected object.
+     * @return Decoded object.
+     */
+    public <TResponse> TResponse decode(Class<TResponse> type) {
+        return text != null ? codec.decode(text, type) : codec.decode(bytes, type);
+    }
+}
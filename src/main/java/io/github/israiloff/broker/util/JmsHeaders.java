@@ -0,0 +1,114 @@
+package io.github.israiloff.broker.util;
+
+import io.github.israiloff.broker.error.GetHeadersException;
+import io.github.israiloff.broker.error.HeaderExtractionException;
+import jakarta.jms.JMSException;
+import org.apache.activemq.artemis.jms.client.ActiveMQDestination;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lazy read-only view over properties (headers) of JMS message. Single header lookups are delegated directly to the
+ * message, properties are enumerated only if the whole map is iterated. Correlation identifier and reply queue of
+ * message are exposed as {@link PublisherUtil#CORRELATION_ID_HEADER} and {@link PublisherUtil#REPLY_TO_HEADER}.
+ */
+public class JmsHeaders extends AbstractMap<String, Object> {
+
+    private final jakarta.jms.Message message;
+    private volatile Map<String, Object> snapshot;
+
+    /**
+     * Constructor.
+     *
+     * @param message Target message.
+     */
+    public JmsHeaders(jakarta.jms.Message message) {
+        this.message = message;
+    }
+
+    /**
+     * Gets value of specified header.
+     *
+     * @param key Header name.
+     * @return Header value or null if header doesn't exist.
+     */
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+
+        try {
+            return switch (name) {
+                case PublisherUtil.CORRELATION_ID_HEADER -> message.getJMSCorrelationID();
+                case PublisherUtil.REPLY_TO_HEADER -> message.getJMSReplyTo() instanceof ActiveMQDestination replyTo
+                        ? replyTo.getName()
+                        : null;
+                default -> message.getObjectProperty(name);
+            };
+        } catch (JMSException e) {
+            throw new HeaderExtractionException(e);
+        }
+    }
+
+    /**
+     * Checks existence of specified header.
+     *
+     * @param key Header name.
+     * @return True if header exists.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String name)) {
+            return false;
+        }
+
+        try {
+            return switch (name) {
+                case PublisherUtil.CORRELATION_ID_HEADER, PublisherUtil.REPLY_TO_HEADER -> get(name) != null;
+                default -> message.propertyExists(name);
+            };
+        } catch (JMSException e) {
+            throw new HeaderExtractionException(e);
+        }
+    }
+
+    /**
+     * Gets all headers. Enumerated once at first call.
+     *
+     * @return Read-only set of headers.
+     */
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        var result = snapshot;
+        if (result == null) {
+            result = snapshot = enumerate();
+        }
+        return result.entrySet();
+    }
+
+    private Map<String, Object> enumerate() {
+        var result = new LinkedHashMap<String, Object>();
+        try {
+            var names = message.getPropertyNames();
+            while (names.hasMoreElements()) {
+                var name = (String) names.nextElement();
+                result.put(name, get(name));
+            }
+            for (var name : List.of(PublisherUtil.CORRELATION_ID_HEADER, PublisherUtil.REPLY_TO_HEADER)) {
+                var value = get(name);
+                if (value != null) {
+                    result.put(name, value);
+                }
+            }
+        } catch (JMSException e) {
+            throw new GetHeadersException(e);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -1,69 +1,60 @@
 package io.github.israiloff.broker.util;
 
+import io.github.israiloff.broker.codec.CodecRegistry;
+import io.github.israiloff.broker.codec.CompressorRegistry;
+import io.github.israiloff.broker.metrics.BrokerMetrics;
+import jakarta.jms.BytesMessage;
 import jakarta.jms.JMSException;
 import jakarta.jms.TextMessage;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.activemq.artemis.jms.client.ActiveMQQueue;
-import org.apache.activemq.artemis.jms.client.ActiveMQTopic;
-import org.apache.commons.collections.IteratorUtils;
+import org.apache.activemq.artemis.jms.client.ActiveMQDestination;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
-import reactor.util.function.Tuple2;
-import reactor.util.function.Tuples;
-import io.github.israiloff.broker.config.ExchangeType;
-import io.github.israiloff.broker.config.JmsProperties;
-import io.github.israiloff.broker.error.GetHeadersException;
 import io.github.israiloff.broker.error.GetMessageException;
-import io.github.israiloff.broker.error.HeaderExtractionException;
 import io.github.israiloff.broker.error.MessageTypeMismatchException;
 import io.github.israiloff.broker.error.TopicNameResolveException;
 
-import java.util.Enumeration;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utilities for JMS message listener.
  */
-@SuppressWarnings({"rawtypes", "unchecked"})
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ListenerUtil {
 
-    private final JmsProperties properties;
+    private final CodecRegistry codecRegistry;
+    private final CompressorRegistry compressorRegistry;
+    private final BrokerMetrics metrics;
+
+    /**
+     * Extracts topic name, body and headers of specified message in one pass on the caller's thread. Compressed
+     * bodies are decompressed.
+     *
+     * @param message      Target message.
+     * @param subscription Name of subscription the message is consumed by.
+     * @return Extracted message data.
+     */
+    public InboundMessage extract(jakarta.jms.Message message, String subscription) {
+        log.debug("extract started for subscription : {}", subscription);
+        var start = System.nanoTime();
+        var result = doExtract(message);
+        var meters = metrics.consumer(subscription);
+        meters.extraction().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        meters.recordLag(getTimestamp(message));
+        return result;
+    }
 
     /**
      * Gets headers of message.
      *
      * @param msg Target message.
-     * @return Headers containing map.
+     * @return Lazy read-only view of headers.
      */
-    @SneakyThrows
-    public Mono<Map<String, Object>> getHeaders(jakarta.jms.Message msg) {
-
-        return Mono.<Enumeration>create(sink -> {
-                    log.debug("getHeaders started");
-                    try {
-                        sink.success(msg.getPropertyNames());
-                    } catch (JMSException e) {
-                        sink.error(new GetHeadersException(e));
-                    }
-                })
-                .map(Enumeration::asIterator)
-                .flatMapIterable(iterator -> (List<String>) IteratorUtils.toList(iterator))
-                .<Tuple2<String, Object>>handle((propertyName, sink) -> {
-                    try {
-                        sink.next(Tuples.of(propertyName, msg.getObjectProperty(propertyName)));
-                    } catch (Throwable e) {
-                        sink.error(new HeaderExtractionException(e));
-                    }
-                })
-                .collectMap(Tuple2::getT1, Tuple2::getT2)
-                .publishOn(Schedulers.boundedElastic());
+    public Map<String, Object> getHeaders(jakarta.jms.Message msg) {
+        return new JmsHeaders(msg);
     }
 
     /**
@@ -72,28 +63,47 @@ public class ListenerUtil {
      * @param message Target message.
      * @return Json representation of body.
      */
-    @SneakyThrows
-    public Mono<String> getJsonBody(jakarta.jms.Message message) {
-        return Mono.<TextMessage>create(sink -> {
-                    log.debug("getJsonBody started");
+    public String getJsonBody(jakarta.jms.Message message) {
+        if (!(message instanceof TextMessage textMessage)) {
+            log.error("received message is not of type {}", TextMessage.class.getName());
+            throw new MessageTypeMismatchException(TextMessage.class);
+        }
 
-                    if (!(message instanceof TextMessage)) {
-                        log.error("received message is not of type {}", TextMessage.class.getName());
-                        sink.error(new MessageTypeMismatchException(TextMessage.class));
-                        return;
-                    }
+        try {
+            return textMessage.getText();
+        } catch (JMSException e) {
+            throw new GetMessageException(e);
+        }
+    }
 
-                    sink.success(((TextMessage) message));
-                })
-                .<String>handle((msg, sink) -> {
-                    try {
-                        sink.next(msg.getText());
-                    } catch (JMSException e) {
-                        sink.error(new GetMessageException(e));
-                    }
-                })
-                .doOnNext(json -> log.debug("parsed json body : {}", json))
-                .publishOn(Schedulers.boundedElastic());
+    /**
+     * Extracts binary content (body) of message. Bytes are read directly, without intermediate text.
+     *
+     * @param message Target message.
+     * @return Binary body.
+     */
+    public byte[] getBytesBody(BytesMessage message) {
+        try {
+            var result = new byte[(int) message.getBodyLength()];
+            message.readBytes(result);
+            return result;
+        } catch (JMSException e) {
+            throw new GetMessageException(e);
+        }
+    }
+
+    /**
+     * Extracts publishing timestamp of specified message.
+     *
+     * @param message Target message.
+     * @return Timestamp in milliseconds or zero if timestamp is not available.
+     */
+    public long getTimestamp(jakarta.jms.Message message) {
+        try {
+            return message.getJMSTimestamp();
+        } catch (JMSException e) {
+            return 0;
+        }
     }
 
     /**
@@ -102,19 +112,27 @@ public class ListenerUtil {
      * @param message Target message.
      * @return Topic name.
      */
-    public Mono<String> getTopicName(jakarta.jms.Message message) {
-        return Mono.<String>create(sink -> {
-                    log.debug("getTopicName started");
-                    try {
-                        var result = properties.exchangeType() == ExchangeType.TOPIC
-                                ? ((ActiveMQTopic) message.getJMSDestination()).getName()
-                                : ((ActiveMQQueue) message.getJMSDestination()).getName();
-                        sink.success(result);
-                    } catch (Throwable e) {
-                        sink.error(new TopicNameResolveException(e));
-                    }
-                })
-                .doOnNext(result -> log.debug("topic name resolved : {}", result))
-                .publishOn(Schedulers.boundedElastic());
+    public String getTopicName(jakarta.jms.Message message) {
+        try {
+            return ((ActiveMQDestination) message.getJMSDestination()).getName();
+        } catch (Throwable e) {
+            throw new TopicNameResolveException(e);
+        }
+    }
+
+    private InboundMessage doExtract(jakarta.jms.Message message) {
+        var headers = getHeaders(message);
+        var codec = codecRegistry.forContentType((String) headers.get(PublisherUtil.CONTENT_TYPE_HEADER));
+
+        if (message instanceof BytesMessage bytesMessage) {
+            var bytes = getBytesBody(bytesMessage);
+            var contentEncoding = (String) headers.get(PublisherUtil.CONTENT_ENCODING_HEADER);
+            if (contentEncoding != null) {
+                bytes = compressorRegistry.decompress(contentEncoding, bytes);
+            }
+            return new InboundMessage(getTopicName(message), null, bytes, codec, headers);
+        }
+
+        return new InboundMessage(getTopicName(message), getJsonBody(message), null, codec, headers);
     }
 }
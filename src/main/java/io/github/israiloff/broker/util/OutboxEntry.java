@@ -0,0 +1,112 @@
+package io.github.israiloff.broker.util;
+
+import lombok.SneakyThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Message stored in the outbox log.
+ *
+ * @param topic   Name of target topic.
+ * @param payload Encoded body of message.
+ * @param headers Additional headers to publish. Can be null.
+ */
+public record OutboxEntry(String topic, byte[] payload, Map<String, Object> headers) {
+
+    private static final byte STRING = 's';
+    private static final byte BOOLEAN = 'z';
+    private static final byte BYTE = 'b';
+    private static final byte SHORT = 'h';
+    private static final byte INT = 'i';
+    private static final byte LONG = 'l';
+    private static final byte FLOAT = 'f';
+    private static final byte DOUBLE = 'd';
+
+    /**
+     * Restores entry from its binary form.
+     *
+     * @param data Binary form of entry.
+     * @return Restored entry.
+     */
+    @SneakyThrows
+    public static OutboxEntry fromBytes(byte[] data) {
+        var input = new DataInputStream(new ByteArrayInputStream(data));
+        var topic = input.readUTF();
+        var payload = input.readNBytes(input.readInt());
+        var count = input.readInt();
+        var headers = new HashMap<String, Object>(count * 2);
+        for (var index = 0; index < count; index++) {
+            var name = input.readUTF();
+            headers.put(name, switch (input.readByte()) {
+                case STRING -> input.readUTF();
+                case BOOLEAN -> input.readBoolean();
+                case BYTE -> input.readByte();
+                case SHORT -> input.readShort();
+                case INT -> input.readInt();
+                case LONG -> input.readLong();
+                case FLOAT -> input.readFloat();
+                case DOUBLE -> input.readDouble();
+                default -> throw new IllegalStateException("outbox entry is corrupted, unknown type of header " + name);
+            });
+        }
+        return new OutboxEntry(topic, payload, headers);
+    }
+
+    /**
+     * Converts entry to its binary form.
+     *
+     * @return Binary form of entry.
+     */
+    @SneakyThrows
+    public byte[] toBytes() {
+        var bytes = new ByteArrayOutputStream(payload.length + 256);
+        var output = new DataOutputStream(bytes);
+        output.writeUTF(topic);
+        output.writeInt(payload.length);
+        output.write(payload);
+        output.writeInt(headers == null ? 0 : headers.size());
+        if (headers != null) {
+            for (var header : headers.entrySet()) {
+                output.writeUTF(header.getKey());
+                writeValue(output, header.getKey(), header.getValue());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @SneakyThrows
+    private static void writeValue(DataOutputStream output, String name, Object value) {
+        if (value instanceof String string) {
+            output.writeByte(STRING);
+            output.writeUTF(string);
+        } else if (value instanceof Boolean bool) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean(bool);
+        } else if (value instanceof Byte number) {
+            output.writeByte(BYTE);
+            output.writeByte(number);
+        } else if (value instanceof Short number) {
+            output.writeByte(SHORT);
+            output.writeShort(number);
+        } else if (value instanceof Integer number) {
+            output.writeByte(INT);
+            output.writeInt(number);
+        } else if (value instanceof Long number) {
+            output.writeByte(LONG);
+            output.writeLong(number);
+        } else if (value instanceof Float number) {
+            output.writeByte(FLOAT);
+            output.writeFloat(number);
+        } else if (value instanceof Double number) {
+            output.writeByte(DOUBLE);
+            output.writeDouble(number);
+        } else {
+            throw new IllegalArgumentException("unsupported value of header " + name + " : " + value);
+        }
+    }
+}
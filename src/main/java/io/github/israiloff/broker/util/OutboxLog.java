@@ -0,0 +1,257 @@
+package io.github.israiloff.broker.util;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Append-only log of the outbox stored in memory-mapped segment files of fixed size. Each record is prefixed by its
+ * length, which is written after the record itself, so that partially written record is never read. Segment is sealed
+ * by negative length once the next record doesn't fit, and the next segment is started. Position of the first not yet
+ * forwarded record is kept in memory-mapped checkpoint file as single 8-byte slot (segment in the high half, position
+ * in the low one), so that checkpoint is never torn. Fully forwarded segments are deleted. Directory of the log is
+ * locked by the opening process, count of segments is limited by maximum size of the log.
+ */
+@Slf4j
+public class OutboxLog implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String LOCK_FILE = "lock";
+    private static final int CHECKPOINT_OFFSET = 2 * Long.BYTES;
+    private static final int CHECKPOINT_SIZE = CHECKPOINT_OFFSET + Long.BYTES;
+    private static final int LENGTH_SIZE = Integer.BYTES;
+    private static final int END_OF_SEGMENT = -1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean force;
+    private final int maxSegments;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final MappedByteBuffer checkpoint;
+    private final String id;
+    private final NavigableMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private long checkpointSegment;
+    private int checkpointPosition;
+    private long writeSegment;
+    private int writePosition;
+
+    /**
+     * Opens the log, creating it if not exists. Records written before crash are recovered.
+     *
+     * @param directory   Directory of the log.
+     * @param segmentSize Size of single segment.
+     * @param maxSize     Maximum size of the log (rounded down to whole segments, at least two of them).
+     * @param force       Whether each append is forced to the storage device.
+     * @throws IllegalStateException If the directory is locked by another process (or another log of this process).
+     */
+    @SneakyThrows
+    public OutboxLog(Path directory, int segmentSize, long maxSize, boolean force) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = (int) Math.min(Math.max(maxSize / segmentSize, 2), Integer.MAX_VALUE);
+        this.force = force;
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        lock = tryLock(lockChannel);
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("outbox directory " + directory + " is used by another process");
+        }
+        checkpoint = map(directory.resolve(CHECKPOINT_FILE), CHECKPOINT_SIZE);
+        if (checkpoint.getLong(0) == 0 && checkpoint.getLong(Long.BYTES) == 0) {
+            var uuid = UUID.randomUUID();
+            checkpoint.putLong(0, uuid.getMostSignificantBits());
+            checkpoint.putLong(Long.BYTES, uuid.getLeastSignificantBits());
+            checkpoint.force();
+        }
+        id = new UUID(checkpoint.getLong(0), checkpoint.getLong(Long.BYTES)).toString();
+        var position = checkpoint.getLong(CHECKPOINT_OFFSET);
+        checkpointSegment = position >>> Integer.SIZE;
+        checkpointPosition = (int) position;
+        recover();
+    }
+
+    /**
+     * Appends record to the log.
+     *
+     * @param record Record to append.
+     * @return False if the record isn't appended, since the log has reached its maximum size.
+     * @throws IllegalArgumentException If the record doesn't fit into single segment.
+     */
+    public synchronized boolean append(byte[] record) {
+        if (record.length > segmentSize - 2 * LENGTH_SIZE) {
+            throw new IllegalArgumentException("outbox record of " + record.length
+                    + " bytes exceeds segment size " + segmentSize);
+        }
+
+        var segment = segments.get(writeSegment);
+        if (writePosition + 2 * LENGTH_SIZE + record.length > segmentSize) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            segment.putInt(writePosition, END_OF_SEGMENT);
+            segment = createSegment(writeSegment + 1);
+        }
+
+        segment.put(writePosition + LENGTH_SIZE, record);
+        segment.putInt(writePosition, record.length);
+        writePosition += LENGTH_SIZE + record.length;
+        if (force) {
+            segment.force();
+        }
+        return true;
+    }
+
+    /**
+     * Reads records following the checkpoint. Checkpoint is not moved.
+     *
+     * @param max Maximum count of records to read.
+     * @return Read records in order of appending.
+     */
+    public synchronized List<Entry> read(int max) {
+        var result = new ArrayList<Entry>();
+        var segmentNumber = checkpointSegment;
+        var position = checkpointPosition;
+        while (result.size() < max) {
+            var segment = segments.get(segmentNumber);
+            var length = position + LENGTH_SIZE <= segmentSize ? segment.getInt(position) : END_OF_SEGMENT;
+            if (length == 0 || length == END_OF_SEGMENT && segmentNumber == writeSegment) {
+                break;
+            }
+
+            if (length == END_OF_SEGMENT) {
+                segmentNumber = segments.higherKey(segmentNumber);
+                position = 0;
+                continue;
+            }
+
+            var data = new byte[length];
+            segment.get(position + LENGTH_SIZE, data);
+            var entryId = id + ":" + segmentNumber + ":" + position;
+            position += LENGTH_SIZE + length;
+            result.add(new Entry(entryId, data, segmentNumber, position));
+        }
+        return result;
+    }
+
+    /**
+     * Moves checkpoint after specified record and deletes segments preceding it.
+     *
+     * @param entry The last forwarded entry.
+     */
+    @SneakyThrows
+    public synchronized void commit(Entry entry) {
+        checkpointSegment = entry.segment();
+        checkpointPosition = entry.next();
+        checkpoint.putLong(CHECKPOINT_OFFSET, checkpointSegment << Integer.SIZE | checkpointPosition);
+        if (force) {
+            checkpoint.force();
+        }
+
+        while (segments.firstKey() < checkpointSegment) {
+            Files.deleteIfExists(segmentPath(segments.pollFirstEntry().getKey()));
+        }
+    }
+
+    /**
+     * Forces pending changes of the log to the storage device and releases lock of the directory.
+     */
+    @Override
+    @SneakyThrows
+    public synchronized void close() {
+        segments.get(writeSegment).force();
+        checkpoint.force();
+        lock.release();
+        lockChannel.close();
+    }
+
+    @SneakyThrows
+    private void recover() {
+        try (var files = Files.list(directory)) {
+            for (var path : files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                var name = path.getFileName().toString();
+                var number = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                if (number < checkpointSegment) {
+                    Files.delete(path);
+                } else {
+                    segments.put(number, map(path, segmentSize));
+                }
+            }
+        }
+
+        if (segments.isEmpty()) {
+            createSegment(checkpointSegment);
+            checkpointPosition = 0;
+            return;
+        }
+
+        writeSegment = segments.lastKey();
+        var segment = segments.get(writeSegment);
+        writePosition = writeSegment == checkpointSegment ? checkpointPosition : 0;
+        int length;
+        while (writePosition + LENGTH_SIZE <= segmentSize && (length = segment.getInt(writePosition)) > 0) {
+            writePosition += LENGTH_SIZE + length;
+        }
+
+        if (writePosition + LENGTH_SIZE > segmentSize || segment.getInt(writePosition) == END_OF_SEGMENT) {
+            createSegment(writeSegment + 1);
+        }
+        log.debug("outbox log recovered with segments : {}", segments.keySet());
+    }
+
+    private MappedByteBuffer createSegment(long number) {
+        var segment = map(segmentPath(number), segmentSize);
+        segments.put(number, segment);
+        writeSegment = number;
+        writePosition = 0;
+        return segment;
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%020d%s", number, SEGMENT_SUFFIX));
+    }
+
+    private FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    @SneakyThrows
+    private MappedByteBuffer map(Path path, int size) {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * Entry read from the log.
+     *
+     * @param id      Unique identifier of entry (identifier of the log, segment and position of record).
+     * @param data    Content of record.
+     * @param segment Segment of record.
+     * @param next    Position following the record in its segment.
+     */
+    public record Entry(String id, byte[] data, long segment, int next) {
+    }
+}
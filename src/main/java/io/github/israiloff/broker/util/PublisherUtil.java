@@ -1,18 +1,190 @@
 package io.github.israiloff.broker.util;
 
+import io.github.israiloff.broker.codec.CodecRegistry;
+import io.github.israiloff.broker.codec.CompressorRegistry;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
 import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import org.apache.activemq.artemis.api.jms.ActiveMQJMSClient;
+import org.springframework.jms.core.JmsTemplate;
 import org.springframework.jms.core.MessagePostProcessor;
+import org.springframework.jms.support.JmsUtils;
 import org.springframework.stereotype.Component;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Utilities for JMS message publisher.
  */
 @Component
+@RequiredArgsConstructor
 public class PublisherUtil {
 
+    /**
+     * Name of the header containing content type of message's payload.
+     */
+    public static final String CONTENT_TYPE_HEADER = "contentType";
+
+    /**
+     * Name of the header containing name of compressor of message's payload.
+     */
+    public static final String CONTENT_ENCODING_HEADER = "contentEncoding";
+
+    /**
+     * Name of the header containing partition key of message. Messages of the same key are delivered to the same
+     * consumer and handled in order.
+     */
+    public static final String PARTITION_KEY_HEADER = "JMSXGroupID";
+
+    /**
+     * Name of the header containing correlation identifier of request or reply. Carried as {@code JMSCorrelationID}.
+     */
+    public static final String CORRELATION_ID_HEADER = "JMSCorrelationID";
+
+    /**
+     * Name of the header containing name of the queue to send reply to. Carried as {@code JMSReplyTo}.
+     */
+    public static final String REPLY_TO_HEADER = "JMSReplyTo";
+
+    /**
+     * Name of the Artemis property accepting input stream of large message's body.
+     */
+    public static final String INPUT_STREAM_PROPERTY = "JMS_AMQ_InputStream";
+
+    /**
+     * Content type of streamed messages.
+     */
+    public static final String STREAM_CONTENT_TYPE = "application/octet-stream";
+
+    private final CodecRegistry codecRegistry;
+    private final CompressorRegistry compressorRegistry;
+
+    /**
+     * Creates message to publish. Payload is encoded by the codec configured for specified topic: text codecs are
+     * encoded directly to text by the codec's cached writer and carried in {@code TextMessage}, binary ones in
+     * {@code BytesMessage}. Payloads exceeding compression threshold of the topic are compressed and carried in
+     * {@code BytesMessage}.
+     *
+     * @param session Session to create message with.
+     * @param topic   Name of target topic.
+     * @param model   Object to publish.
+     * @param headers Additional headers to publish. Can be null.
+     * @return Created message.
+     * @throws JMSException If message can't be created.
+     */
+    public Message createMessage(Session session, String topic, Object model, Map<String, Object> headers)
+            throws JMSException {
+        var codec = codecRegistry.forTopic(topic);
+        if (codec.isBinary() || compressorRegistry.isEnabled(topic)) {
+            return createMessage(session, topic, codec.encode(model), headers);
+        }
+
+        var message = applyHeaders(headers).postProcessMessage(session.createTextMessage(codec.encodeText(model)));
+        message.setStringProperty(CONTENT_TYPE_HEADER, codec.getContentType());
+        return message;
+    }
+
+    /**
+     * Creates message to publish from payload already encoded by the codec configured for specified topic (see
+     * {@link #encode(String, Object)}). Payloads exceeding compression threshold of the topic are compressed. Content
+     * type and encoding headers are applied after the additional ones, so that they can't be overridden.
+     *
+     * @param session Session to create message with.
+     * @param topic   Name of target topic.
+     * @param payload Encoded payload.
+     * @param headers Additional headers to publish. Can be null.
+     * @return Created message.
+     * @throws JMSException If message can't be created.
+     */
+    public Message createMessage(Session session, String topic, byte[] payload, Map<String, Object> headers)
+            throws JMSException {
+        var codec = codecRegistry.forTopic(topic);
+        var compressor = compressorRegistry.forPayload(topic, payload.length);
+        Message message;
+        if (compressor != null) {
+            message = createBytesMessage(session, compressor.compress(payload));
+        } else if (codec.isBinary()) {
+            message = createBytesMessage(session, payload);
+        } else {
+            message = session.createTextMessage(new String(payload, StandardCharsets.UTF_8));
+        }
+        message = applyHeaders(headers).postProcessMessage(message);
+        if (compressor != null) {
+            message.setStringProperty(CONTENT_ENCODING_HEADER, compressor.getName());
+        }
+        message.setStringProperty(CONTENT_TYPE_HEADER, codec.getContentType());
+        return message;
+    }
+
+    /**
+     * Encodes payload by the codec configured for specified topic.
+     *
+     * @param topic Name of target topic.
+     * @param model Object to publish.
+     * @return Encoded payload.
+     */
+    public byte[] encode(String topic, Object model) {
+        return codecRegistry.forTopic(topic).encode(model);
+    }
+
+    /**
+     * Creates large message whose body is streamed from specified input stream while sending, without buffering of
+     * the whole content in memory.
+     *
+     * @param session Session to create message with.
+     * @param content Content of message's body.
+     * @param headers Additional headers to publish. Can be null.
+     * @return Created message.
+     * @throws JMSException If message can't be created.
+     */
+    public Message createStreamMessage(Session session, InputStream content, Map<String, Object> headers)
+            throws JMSException {
+        var message = applyHeaders(headers).postProcessMessage(session.createBytesMessage());
+        message.setObjectProperty(INPUT_STREAM_PROPERTY, content);
+        message.setStringProperty(CONTENT_TYPE_HEADER, STREAM_CONTENT_TYPE);
+        return message;
+    }
+
+    /**
+     * Sends messages within single transaction of transacted template. Producers are created per topic once per
+     * transaction. The transaction is rolled back if any message can't be created or sent.
+     *
+     * @param transactedTemplate JMS template working with transacted sessions.
+     * @param messages           Messages to send.
+     * @param topics             Provider of target topic of message.
+     * @param creator            Creator of JMS message.
+     * @param <T>                Type of messages.
+     */
+    public <T> void sendInTransaction(JmsTemplate transactedTemplate, List<T> messages, Function<T, String> topics,
+                                      TransactedMessageCreator<T> creator) {
+        transactedTemplate.execute(session -> {
+            var producers = new HashMap<String, MessageProducer>();
+            try {
+                for (var message : messages) {
+                    var producer = producers.computeIfAbsent(topics.apply(message),
+                            topic -> createProducer(transactedTemplate, session, topic));
+                    producer.send(creator.create(session, message));
+                }
+                session.commit();
+            } catch (JMSException | RuntimeException e) {
+                session.rollback();
+                throw e;
+            } finally {
+                producers.values().forEach(JmsUtils::closeMessageProducer);
+            }
+            return null;
+        }, true);
+    }
+
     /**
      * Multiple headers' applier.
      *
@@ -29,13 +201,51 @@ public class PublisherUtil {
     }
 
     /**
-     * Single header applier.
+     * Single header applier. {@link #CORRELATION_ID_HEADER} and {@link #REPLY_TO_HEADER} are applied as JMS headers,
+     * others as properties.
      *
      * @param message Target message.
      * @param header  Target header.
      */
     @SneakyThrows
     public void applyHeader(Message message, Map.Entry<String, Object> header) {
-        message.setObjectProperty(header.getKey(), header.getValue());
+        switch (header.getKey()) {
+            case CORRELATION_ID_HEADER -> message.setJMSCorrelationID(String.valueOf(header.getValue()));
+            case REPLY_TO_HEADER -> message.setJMSReplyTo(
+                    ActiveMQJMSClient.createQueue(String.valueOf(header.getValue())));
+            default -> message.setObjectProperty(header.getKey(), header.getValue());
+        }
+    }
+
+    private BytesMessage createBytesMessage(Session session, byte[] payload) throws JMSException {
+        var message = session.createBytesMessage();
+        message.writeBytes(payload);
+        return message;
+    }
+
+    @SneakyThrows
+    private MessageProducer createProducer(JmsTemplate template, Session session, String topic) {
+        var destination = template.getDestinationResolver()
+                .resolveDestinationName(session, topic, template.isPubSubDomain());
+        return session.createProducer(destination);
+    }
+
+    /**
+     * Creator of JMS message from message sent within transaction.
+     *
+     * @param <T> Type of messages.
+     */
+    @FunctionalInterface
+    public interface TransactedMessageCreator<T> {
+
+        /**
+         * Creates JMS message.
+         *
+         * @param session Session to create message with.
+         * @param message Message to send.
+         * @return Created message.
+         * @throws JMSException If message can't be created.
+         */
+        Message create(Session session, T message) throws JMSException;
     }
 }
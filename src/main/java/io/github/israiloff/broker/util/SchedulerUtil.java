@@ -0,0 +1,75 @@
+package io.github.israiloff.broker.util;
+
+import io.github.israiloff.broker.config.RejectionPolicy;
+import io.github.israiloff.broker.metrics.BrokerMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utilities for creation of the library's own schedulers. Saturation of created schedulers is exposed via
+ * {@link BrokerMetrics#scheduler(String, ThreadPoolExecutor)} meters.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchedulerUtil {
+
+    private final BrokerMetrics metrics;
+
+    /**
+     * Creates bounded scheduler backed by fixed count of threads and bounded task queue.
+     *
+     * @param name           Name of scheduler (used as threads' name prefix).
+     * @param threads        Count of threads.
+     * @param queueCapacity  Maximum count of pending tasks.
+     * @param virtualThreads Whether threads should be virtual. Ignored if runtime doesn't support virtual threads.
+     * @param rejection      Policy of handling tasks submitted once the scheduler is saturated.
+     * @return Created scheduler.
+     */
+    public Scheduler newScheduler(String name, int threads, int queueCapacity, boolean virtualThreads,
+                                  RejectionPolicy rejection) {
+        log.debug("newScheduler started for name : {}, threads : {}", name, threads);
+        var executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory(name, virtualThreads));
+        executor.allowCoreThreadTimeOut(true);
+        var rejected = metrics.scheduler(name, executor);
+        var handler = rejection == RejectionPolicy.CALLER_RUNS
+                ? new ThreadPoolExecutor.CallerRunsPolicy()
+                : new ThreadPoolExecutor.AbortPolicy();
+        executor.setRejectedExecutionHandler((task, target) -> {
+            rejected.increment();
+            handler.rejectedExecution(task, target);
+        });
+        return Schedulers.fromExecutorService(executor, name);
+    }
+
+    private ThreadFactory threadFactory(String name, boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = Class.forName("java.lang.Thread$Builder")
+                        .getMethod("name", String.class, long.class)
+                        .invoke(builder, name + "-", 0L);
+                return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                log.warn("virtual threads are not supported by current runtime, platform threads will be used");
+            }
+        }
+
+        var counter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
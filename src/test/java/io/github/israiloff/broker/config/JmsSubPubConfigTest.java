@@ -0,0 +1,68 @@
+package io.github.israiloff.broker.config;
+
+import io.github.israiloff.broker.util.SchedulerUtil;
+import jakarta.jms.ConnectionFactory;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.converter.SimpleMessageConverter;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Context tests of {@link JmsSubPubConfig}.
+ */
+class JmsSubPubConfigTest {
+
+    /**
+     * Transacted template is a separate instance, so that the default one stays non transacted.
+     */
+    @Test
+    void createsSeparateTransactedTemplate() {
+        try (var context = new AnnotationConfigApplicationContext(TestConfig.class, JmsSubPubConfig.class)) {
+            var template = context.getBean(JmsSubPubConfig.JMS_TEMPLATE, JmsTemplate.class);
+            var transactedTemplate = context.getBean(JmsSubPubConfig.TRANSACTED_JMS_TEMPLATE, JmsTemplate.class);
+
+            assertNotSame(template, transactedTemplate);
+            assertFalse(template.isSessionTransacted());
+            assertTrue(transactedTemplate.isSessionTransacted());
+        }
+    }
+
+    /**
+     * Beans required by {@link JmsSubPubConfig}.
+     */
+    @Configuration
+    static class TestConfig {
+
+        @Bean(JmsConfig.MESSAGE_CONVERTER)
+        MessageConverter messageConverter() {
+            return new SimpleMessageConverter();
+        }
+
+        @Bean(JmsConfig.PUBLISHER_CONNECTION_FACTORY)
+        ConnectionFactory connectionFactory() {
+            return new ActiveMQConnectionFactory("vm://0");
+        }
+
+        @Bean
+        SchedulerUtil schedulerUtil() {
+            return new SchedulerUtil(null) {
+
+                @Override
+                public Scheduler newScheduler(String name, int threads, int queueCapacity, boolean virtualThreads,
+                                              RejectionPolicy rejection) {
+                    return Schedulers.immediate();
+                }
+            };
+        }
+    }
+}
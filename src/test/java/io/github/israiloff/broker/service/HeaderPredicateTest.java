@@ -0,0 +1,77 @@
+package io.github.israiloff.broker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of {@link HeaderPredicate} compilation into message selectors and in-process evaluation.
+ */
+class HeaderPredicateTest {
+
+    /**
+     * Predicates are compiled into selector with escaped literals and parenthesized junctions.
+     */
+    @Test
+    void compilesSelector() {
+        var predicate = HeaderPredicate.eq("region", "o'hare")
+                .and(HeaderPredicate.gt("amount", 1.5e3).or(HeaderPredicate.in("tier", "gold", "basic")))
+                .and(HeaderPredicate.notExists("test"));
+
+        assertEquals("((region = 'o''hare') AND ((amount > 1500.0) OR (tier IN ('basic', 'gold')))) "
+                + "AND (test IS NULL)", predicate.toSelector());
+        assertEquals("flag <> TRUE", HeaderPredicate.notEq("flag", true).toSelector());
+    }
+
+    /**
+     * Invalid header names and literals are rejected when predicate is built.
+     */
+    @Test
+    void rejectsInvalidPredicates() {
+        assertThrows(IllegalArgumentException.class, () -> HeaderPredicate.eq("not", 1));
+        assertThrows(IllegalArgumentException.class, () -> HeaderPredicate.eq("a-b", 1));
+        assertThrows(IllegalArgumentException.class, () -> HeaderPredicate.eq("name", new Object()));
+        assertThrows(IllegalArgumentException.class, () -> HeaderPredicate.gt("amount", Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> HeaderPredicate.lt("amount", Float.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> HeaderPredicate.in("tier"));
+    }
+
+    /**
+     * Numbers of different types are compared by value, values of incomparable types and missing headers never match.
+     */
+    @Test
+    void comparesHeaders() {
+        var predicate = HeaderPredicate.gt("amount", 100);
+
+        assertTrue(predicate.test(Map.of("amount", 100.5d)));
+        assertTrue(predicate.test(Map.of("amount", new BigDecimal("100.01"))));
+        assertFalse(predicate.test(Map.of("amount", 100L)));
+        assertFalse(predicate.test(Map.of("amount", "200")));
+        assertFalse(predicate.test(Map.of()));
+
+        assertTrue(HeaderPredicate.eq("count", 3L).test(Map.of("count", (short) 3)));
+        assertTrue(HeaderPredicate.notEq("region", "eu").test(Map.of("region", "us")));
+        assertFalse(HeaderPredicate.notEq("region", "eu").test(Map.of()));
+        assertTrue(HeaderPredicate.in("tier", "gold").test(Map.of("tier", "gold")));
+        assertTrue(HeaderPredicate.exists("tier").or(HeaderPredicate.eq("flag", true)).test(Map.of("flag", true)));
+        assertFalse(HeaderPredicate.exists("tier").and(HeaderPredicate.eq("flag", true)).test(Map.of("flag", true)));
+    }
+
+    /**
+     * Non-finite header values are compared as doubles instead of failing the dispatch.
+     */
+    @Test
+    void comparesNonFiniteHeaders() {
+        assertFalse(HeaderPredicate.eq("amount", 1).test(Map.of("amount", Double.NaN)));
+        assertTrue(HeaderPredicate.notEq("amount", 1).test(Map.of("amount", Float.NaN)));
+        assertFalse(HeaderPredicate.gt("amount", 1).test(Map.of("amount", Double.NaN)));
+        assertTrue(HeaderPredicate.gt("amount", 1).test(Map.of("amount", Double.POSITIVE_INFINITY)));
+        assertTrue(HeaderPredicate.lt("amount", 1).test(Map.of("amount", Float.NEGATIVE_INFINITY)));
+    }
+}
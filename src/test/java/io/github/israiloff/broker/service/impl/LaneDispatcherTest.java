@@ -0,0 +1,200 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.config.JmsProperties;
+import io.github.israiloff.broker.config.RejectionPolicy;
+import io.github.israiloff.broker.model.Message;
+import io.github.israiloff.broker.service.Subscriber;
+import io.github.israiloff.broker.util.PublisherUtil;
+import io.github.israiloff.broker.util.SchedulerUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of {@link LaneDispatcher} ordering, parallelism and capacity of lanes.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+class LaneDispatcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Messages of the same partition key are handled one by one in order of arrival.
+     */
+    @Test
+    void keepsOrderOfKey() {
+        var handled = new ConcurrentHashMap<String, List<Integer>>();
+        var dispatcher = create(Map.of(), message -> Mono.fromRunnable(() -> {
+            sleep(ThreadLocalRandom.current().nextInt(3));
+            handled.computeIfAbsent(key(message), key -> new ArrayList<>()).add((Integer) message.model());
+        }));
+        var subscriber = new TestSubscriber(2);
+
+        try {
+            Mono.when(IntStream.range(0, 40)
+                    .mapToObj(index -> dispatcher.invoke(subscriber, message(index % 2 == 0 ? "a" : "b", index)))
+                    .toList()).block(TIMEOUT);
+
+            assertEquals(IntStream.range(0, 40).filter(index -> index % 2 == 0).boxed().toList(), handled.get("a"));
+            assertEquals(IntStream.range(0, 40).filter(index -> index % 2 == 1).boxed().toList(), handled.get("b"));
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    /**
+     * Messages of keys falling into different lanes are handled in parallel.
+     */
+    @Test
+    void handlesKeysInParallel() {
+        var started = new CountDownLatch(2);
+        var dispatcher = create(Map.of(), message -> Mono.fromRunnable(() -> {
+            started.countDown();
+            assertTrue(await(started));
+        }));
+        var subscriber = new TestSubscriber(2);
+
+        try {
+            // hash codes of "a" and "b" fall into different lanes of two
+            Mono.when(dispatcher.invoke(subscriber, message("a", 1)), dispatcher.invoke(subscriber, message("b", 2)))
+                    .block(TIMEOUT);
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    /**
+     * Message is rejected once its lane is full and {@link RejectionPolicy#ABORT} policy is configured.
+     */
+    @Test
+    void rejectsWhenLaneIsFull() {
+        var release = new CountDownLatch(1);
+        var dispatcher = create(Map.of("consumer.lanes.queue-capacity", "1", "consumer.lanes.rejection", "ABORT"),
+                message -> Mono.fromRunnable(() -> await(release)));
+        var subscriber = new TestSubscriber(1);
+
+        try {
+            var running = dispatcher.invoke(subscriber, message("a", 1)).toFuture();
+            assertThrows(RejectedExecutionException.class,
+                    () -> dispatcher.invoke(subscriber, message("a", 2)).block(TIMEOUT));
+
+            release.countDown();
+            running.join();
+            dispatcher.invoke(subscriber, message("a", 3)).block(TIMEOUT);
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    /**
+     * Messages without partition key and messages of subscribers having no lanes are handled on the caller's thread.
+     */
+    @Test
+    void handlesDirectly() {
+        var threads = new ArrayList<Thread>();
+        var dispatcher = create(Map.of(), message -> Mono.fromRunnable(() -> threads.add(Thread.currentThread())));
+
+        try {
+            dispatcher.invoke(new TestSubscriber(2), new Message<>(1, Map.of())).block(TIMEOUT);
+            dispatcher.invoke(new TestSubscriber(0), message("a", 2)).block(TIMEOUT);
+
+            assertEquals(2, threads.size());
+            threads.forEach(thread -> assertSame(Thread.currentThread(), thread));
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    private LaneDispatcher create(Map<String, String> properties, Function<Message, Mono<Void>> handler) {
+        var invoker = new SubscriberInvoker(null, null, null) {
+
+            @Override
+            public Mono<Void> invoke(Subscriber subscriber, Message message) {
+                return handler.apply(message);
+            }
+        };
+        var schedulerUtil = new SchedulerUtil(null) {
+
+            @Override
+            public Scheduler newScheduler(String name, int threads, int queueCapacity, boolean virtualThreads,
+                                          RejectionPolicy rejection) {
+                return Schedulers.newBoundedElastic(threads, queueCapacity, name);
+            }
+        };
+        return new LaneDispatcher(invoker, schedulerUtil,
+                new Binder(new MapConfigurationPropertySource(properties)).bindOrCreate("", JmsProperties.class));
+    }
+
+    private Message<Integer> message(String key, int index) {
+        return new Message<>(index, Map.of(PublisherUtil.PARTITION_KEY_HEADER, key));
+    }
+
+    private String key(Message message) {
+        return (String) message.headers().get(PublisherUtil.PARTITION_KEY_HEADER);
+    }
+
+    private boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Subscriber having specified count of lanes.
+     *
+     * @param lanes Count of lanes.
+     */
+    private record TestSubscriber(int lanes) implements Subscriber<Integer> {
+
+        @Override
+        public Class<Integer> getMsgClass() {
+            return Integer.class;
+        }
+
+        @Override
+        public String getTopic() {
+            return "orders";
+        }
+
+        @Override
+        public Mono<Void> handle(Message<Integer> message) {
+            return Mono.empty();
+        }
+
+        @Override
+        public int getLanes() {
+            return lanes;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.israiloff.broker.service.impl;
+
+import io.github.israiloff.broker.model.Message;
+import io.github.israiloff.broker.service.Subscriber;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of {@link SubscriberRegistry} routing and covering of subscriptions.
+ */
+@SuppressWarnings("rawtypes")
+class SubscriberRegistryTest {
+
+    /**
+     * Concrete addresses are routed to exact and wildcard subscribers.
+     */
+    @Test
+    void routesAddresses() {
+        var exact = new TestSubscriber("orders.eu.created");
+        var anyWord = new TestSubscriber("orders.*.created");
+        var anyWords = new TestSubscriber("orders.#");
+        var trailing = new TestSubscriber("orders.eu.#");
+        var registry = new SubscriberRegistry(List.of(exact, anyWord, anyWords, trailing));
+
+        assertEquals(Set.of(exact, anyWord, anyWords, trailing), Set.copyOf(registry.route("orders.eu.created")));
+        assertEquals(Set.of(anyWord, anyWords), Set.copyOf(registry.route("orders.us.created")));
+        assertEquals(Set.of(anyWords, trailing), Set.copyOf(registry.route("orders.eu")));
+        assertEquals(Set.of(anyWords), Set.copyOf(registry.route("orders")));
+        assertEquals(Set.of(anyWords), Set.copyOf(registry.route("orders.us.created.late")));
+        assertTrue(registry.route("payments.eu.created").isEmpty());
+    }
+
+    /**
+     * Wildcards are matched by words, not by prefixes.
+     */
+    @Test
+    void coversTopics() {
+        assertTrue(SubscriberRegistry.covers("news.#", "news"));
+        assertTrue(SubscriberRegistry.covers("news.#", "news.sport.football"));
+        assertTrue(SubscriberRegistry.covers("#", "news.sport"));
+        assertTrue(SubscriberRegistry.covers("news.*.today", "news.sport.today"));
+        assertTrue(SubscriberRegistry.covers("news.#", "news.*.today"));
+        assertFalse(SubscriberRegistry.covers("news.*", "news"));
+        assertFalse(SubscriberRegistry.covers("news.*", "news.sport.today"));
+        assertFalse(SubscriberRegistry.covers("news.*", "news.#"));
+        assertFalse(SubscriberRegistry.covers("news", "newsletter"));
+    }
+
+    /**
+     * Topics covered by wildcard topic of another subscriber share its subscription.
+     */
+    @Test
+    void coversSubscriptions() {
+        var exact = new TestSubscriber("news.sport");
+        var wildcard = new TestSubscriber("news.#");
+        var other = new TestSubscriber("weather");
+        var registry = new SubscriberRegistry(List.of(exact, wildcard, other));
+
+        var subscriptions = registry.getSubscriptions();
+        assertEquals(Set.of("news.#", "weather"), subscriptions.keySet());
+        assertEquals(Set.of(exact, wildcard), Set.copyOf(subscriptions.get("news.#")));
+        assertEquals(Set.of("news.sport"), registry.getSubscriptions(subscriber -> subscriber == exact).keySet());
+    }
+
+    /**
+     * Resolved routes are cached up to the limit, routes of the other addresses are resolved each time.
+     */
+    @Test
+    void cachesRoutes() {
+        var subscriber = new TestSubscriber("news.#");
+        var registry = new SubscriberRegistry(List.of(subscriber));
+
+        assertSame(registry.route("news.sport"), registry.route("news.sport"));
+
+        IntStream.range(0, SubscriberRegistry.MAX_CACHED_ROUTES).forEach(index -> registry.route("other" + index));
+        var uncached = registry.route("news.weather");
+        assertEquals(List.of(subscriber), uncached);
+        assertEquals(uncached, registry.route("news.weather"));
+        assertNotSame(uncached, registry.route("news.weather"));
+    }
+
+    /**
+     * Subscriber of specified topic.
+     *
+     * @param topic Topic name.
+     */
+    private record TestSubscriber(String topic) implements Subscriber<String> {
+
+        @Override
+        public Class<String> getMsgClass() {
+            return String.class;
+        }
+
+        @Override
+        public String getTopic() {
+            return topic;
+        }
+
+        @Override
+        public Mono<Void> handle(Message<String> message) {
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.israiloff.broker.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of {@link ByteBufferPipe} backpressure, cancellation and failure.
+ */
+class ByteBufferPipeTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Writer is blocked while the pipe is full, chunks are read in order of writing.
+     */
+    @Test
+    void blocksWriterWhileFull() throws Exception {
+        var pipe = new ByteBufferPipe(2, Schedulers.boundedElastic());
+        var written = new AtomicInteger();
+        var writer = CompletableFuture.runAsync(() -> {
+            try (var stream = pipe.getOutputStream()) {
+                for (var chunk : List.of("a", "b", "c", "d")) {
+                    stream.write(chunk.getBytes(StandardCharsets.UTF_8));
+                    written.incrementAndGet();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Thread.sleep(300);
+        assertEquals(2, written.get());
+        assertFalse(writer.isDone());
+
+        var chunks = pipe.asFlux().map(this::toString).collectList().block(TIMEOUT);
+        assertEquals(List.of("a", "b", "c", "d"), chunks);
+        writer.join();
+    }
+
+    /**
+     * Blocked and further writes fail once the reading side is cancelled.
+     */
+    @Test
+    void failsWritesOnceCancelled() throws Exception {
+        var pipe = new ByteBufferPipe(1, Schedulers.boundedElastic());
+        var stream = pipe.getOutputStream();
+        stream.write(1);
+
+        assertEquals(1, pipe.asFlux().take(1).count().block(TIMEOUT));
+        assertTrue(pipe.isCancelled());
+        assertThrows(IOException.class, () -> stream.write(2));
+
+        var blockedPipe = new ByteBufferPipe(1, Schedulers.boundedElastic());
+        var blockedStream = blockedPipe.getOutputStream();
+        blockedStream.write(1);
+        var writer = CompletableFuture.runAsync(() -> {
+            try {
+                blockedStream.write(2);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Thread.sleep(200);
+        assertFalse(writer.isDone());
+        blockedPipe.cancel();
+        var error = assertThrows(Exception.class, writer::join);
+        assertInstanceOf(IOException.class, error.getCause().getCause());
+    }
+
+    /**
+     * Failure drops unread chunks and terminates the reading side with the cause.
+     */
+    @Test
+    void failsReader() throws Exception {
+        var pipe = new ByteBufferPipe(1, Schedulers.boundedElastic());
+        pipe.getOutputStream().write(1);
+        var cause = new IllegalStateException("write failed");
+        pipe.fail(cause);
+
+        var error = assertThrows(IllegalStateException.class, () -> pipe.asFlux().blockLast(TIMEOUT));
+        assertSame(cause, error);
+    }
+
+    private String toString(ByteBuffer buffer) {
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+}
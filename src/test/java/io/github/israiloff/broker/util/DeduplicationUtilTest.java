@@ -0,0 +1,90 @@
+package io.github.israiloff.broker.util;
+
+import io.github.israiloff.broker.config.JmsProperties;
+import jakarta.jms.Message;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of {@link DeduplicationUtil} stamping, identification and generations of processed identifiers.
+ */
+class DeduplicationUtilTest {
+
+    /**
+     * Processed identifiers are remembered for two generations, the older one is dropped once the newer one is full.
+     */
+    @Test
+    void rollsGenerationsOver() {
+        var deduplicationUtil = create(Map.of("deduplication.consume", "true", "deduplication.cache-size", "4",
+                "deduplication.stripes", "1"));
+
+        LongStream.rangeClosed(1, 5).forEach(deduplicationUtil::markProcessed);
+        LongStream.rangeClosed(1, 5).forEach(id -> assertTrue(deduplicationUtil.isProcessed(id)));
+
+        LongStream.rangeClosed(6, 9).forEach(deduplicationUtil::markProcessed);
+        LongStream.rangeClosed(1, 4).forEach(id -> assertFalse(deduplicationUtil.isProcessed(id)));
+        LongStream.rangeClosed(5, 9).forEach(id -> assertTrue(deduplicationUtil.isProcessed(id)));
+        assertFalse(deduplicationUtil.isProcessed(DeduplicationUtil.NO_ID));
+    }
+
+    /**
+     * Identifier is unique per subscription and falls back to message identifier.
+     */
+    @Test
+    void identifiesMessagesPerSubscription() {
+        var deduplicationUtil = create(Map.of("deduplication.consume", "true"));
+        var stamped = message("stamp", "ID:1");
+
+        var id = deduplicationUtil.getId(stamped, "orders");
+        assertNotEquals(DeduplicationUtil.NO_ID, id);
+        assertEquals(id, deduplicationUtil.getId(message("stamp", "ID:2"), "orders"));
+        assertNotEquals(id, deduplicationUtil.getId(stamped, "audit"));
+        assertNotEquals(deduplicationUtil.getId(message(null, "ID:1"), "orders"),
+                deduplicationUtil.getId(message(null, "ID:2"), "orders"));
+        assertEquals(DeduplicationUtil.NO_ID, deduplicationUtil.getId(message(null, null), "orders"));
+        assertEquals(DeduplicationUtil.NO_ID, create(Map.of()).getId(stamped, "orders"));
+    }
+
+    /**
+     * Headers are stamped once, identifier supplied by the caller is kept.
+     */
+    @Test
+    void stampsHeaders() {
+        var deduplicationUtil = create(Map.of("deduplication.publish", "true"));
+
+        var stamped = deduplicationUtil.stamp(null);
+        assertNotNull(stamped.get(DeduplicationUtil.DUPLICATE_ID_HEADER));
+        assertSame(stamped, deduplicationUtil.stamp(stamped));
+        assertNotEquals(stamped, deduplicationUtil.stamp(Map.of()));
+
+        var headers = Map.<String, Object>of("region", "eu");
+        assertSame(headers, create(Map.of()).stamp(headers));
+        assertEquals("eu", deduplicationUtil.stamp(headers).get("region"));
+    }
+
+    private DeduplicationUtil create(Map<String, String> properties) {
+        return new DeduplicationUtil(new Binder(new MapConfigurationPropertySource(properties))
+                .bindOrCreate("", JmsProperties.class));
+    }
+
+    private Message message(Object duplicateId, String messageId) {
+        return (Message) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Message.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getObjectProperty" -> duplicateId;
+                    case "getJMSMessageID" -> messageId;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.israiloff.broker.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of {@link OutboxLog} recovery, segments' rotation and limits.
+ */
+class OutboxLogTest {
+
+    private static final int SEGMENT_SIZE = 64;
+    private static final long MAX_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Not yet committed records are read again after reopening, committed ones are not.
+     */
+    @Test
+    void recoversRecordsFollowingCheckpoint() {
+        try (var log = open()) {
+            List.of("first", "second", "third").forEach(value -> assertTrue(log.append(bytes(value))));
+            log.commit(log.read(1).get(0));
+        }
+
+        try (var log = open()) {
+            var entries = log.read(10);
+            assertEquals(2, entries.size());
+            assertArrayEquals(bytes("second"), entries.get(0).data());
+            assertArrayEquals(bytes("third"), entries.get(1).data());
+
+            assertTrue(log.append(bytes("fourth")));
+            assertArrayEquals(bytes("fourth"), log.read(10).get(2).data());
+        }
+    }
+
+    /**
+     * Records are read across rotated segments in order of appending, forwarded segments are deleted.
+     */
+    @Test
+    void rotatesAndDeletesSegments() throws Exception {
+        try (var log = open()) {
+            for (var index = 0; index < 10; index++) {
+                assertTrue(log.append(bytes("record-" + index)));
+            }
+            assertTrue(countSegments() > 1);
+
+            var entries = log.read(100);
+            assertEquals(10, entries.size());
+            for (var index = 0; index < 10; index++) {
+                assertArrayEquals(bytes("record-" + index), entries.get(index).data());
+            }
+
+            log.commit(entries.get(entries.size() - 1));
+            assertEquals(1, countSegments());
+            assertTrue(log.read(100).isEmpty());
+        }
+
+        try (var log = open()) {
+            assertTrue(log.read(100).isEmpty());
+            assertTrue(log.append(bytes("after-restart")));
+            assertArrayEquals(bytes("after-restart"), log.read(100).get(0).data());
+        }
+    }
+
+    /**
+     * Records are rejected once the log reaches its maximum size and accepted again after commit.
+     */
+    @Test
+    void rejectsRecordsOnceFull() {
+        try (var log = new OutboxLog(directory, SEGMENT_SIZE, 2 * SEGMENT_SIZE, false)) {
+            var appended = 0;
+            while (log.append(bytes("record-" + appended))) {
+                appended++;
+            }
+            assertTrue(appended > 0);
+
+            var entries = log.read(100);
+            assertEquals(appended, entries.size());
+            log.commit(entries.get(entries.size() - 1));
+            assertTrue(log.append(bytes("record-" + appended)));
+        }
+    }
+
+    /**
+     * Directory of the log can't be opened twice, lock is released on close.
+     */
+    @Test
+    void locksDirectory() {
+        try (var ignored = open()) {
+            assertThrows(IllegalStateException.class, this::open);
+        }
+
+        try (var log = open()) {
+            assertTrue(log.read(1).isEmpty());
+        }
+    }
+
+    private OutboxLog open() {
+        return new OutboxLog(directory, SEGMENT_SIZE, MAX_SIZE, false);
+    }
+
+    private long countSegments() throws Exception {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}